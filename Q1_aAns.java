@@ -31,9 +31,46 @@ Complexity:
 Time: O(k * moves)
 
 Space: O(k * n)
+
+Large Inputs:
+
+Only the previous column of the table is needed, so minMeasurementsRolling keeps a single long[k + 1] array.
+
+k samples never help beyond ceil(log2(n + 1)), the number of tests of a plain binary search, so k is
+clamped to that first.
+
+dp[k][moves] is also the binomial sum C(moves, 1) + C(moves, 2) + ... + C(moves, k), which grows with moves.
+minMeasurementsFast binary searches the smallest moves whose sum reaches n, stopping each sum as soon as it does.
+
+Time: O(k log n) for minMeasurementsFast.
+
+Space: O(k) for minMeasurementsRolling, O(1) for minMeasurementsFast.
+
+minMeasurementsCached keeps the most recently used CACHE_SIZE answers keyed by (clamped k, n), so repeated
+lookups are fast and a long-running service does not grow the cache forever.
+
+CapacityTable builds dp[i][moves] once, up to fixed limits, in one flat long array.
+Every row grows with moves, so minMeasurements is a binary search in row k and maxLevels is a single lookup.
+The table is never modified after construction and can be shared between threads.
  */
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class Q1_aAns { // Define a public class named Q1_aAns
 
+    private static final int CACHE_SIZE = 1 << 12; // Most answers kept by minMeasurementsCached
+
+    // Least recently used cache of answers, keyed by k in the high 32 bits and n in the low 32 bits.
+    // Guarded by its own lock.
+    private static final Map<Long, Integer> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+            return size() > CACHE_SIZE; // Drop the least recently used answer
+        }
+    };
+
     // Method to find the minimum number of measurements required
     public static int minMeasurements(int k, int n) {
         // If we have only one sample (k = 1), we need to check every temperature one by one.
@@ -65,11 +102,143 @@ public class Q1_aAns { // Define a public class named Q1_aAns
         return moves;
     }
 
+    // Same answer as minMeasurements, keeping only one column of the DP table in longs
+    public static int minMeasurementsRolling(int k, int n) {
+        if (k < 1) throw new IllegalArgumentException("k must be at least 1");
+        k = usefulSamples(k, n);
+        if (k == 1) return n;
+
+        long[] dp = new long[k + 1]; // dp[i] = levels testable with i samples and the current moves
+        int moves = 0;
+        while (dp[k] < n) {
+            moves++;
+            // Go from high i to low i so dp[i - 1] still holds the value for moves - 1
+            for (int i = k; i >= 1; i--) {
+                dp[i] = Math.min(1 + dp[i - 1] + dp[i], n); // Saturate at n, larger values are never needed
+            }
+        }
+        return moves;
+    }
+
+    // Same answer as minMeasurements, binary searching moves with the binomial-sum formulation
+    public static int minMeasurementsFast(int k, int n) {
+        if (k < 1) throw new IllegalArgumentException("k must be at least 1");
+        int l = 0, r = n; // n moves always suffice, even with one sample
+        while (l < r) {
+            int mid = (l + r) >>> 1;
+            if (levels(mid, k, n) >= n) {
+                r = mid; // mid moves are enough, try fewer
+            } else {
+                l = mid + 1; // Not enough, need more moves
+            }
+        }
+        return l;
+    }
+
+    // Helper method to clamp k to ceil(log2(n + 1)), the most samples that can still save a move
+    private static int usefulSamples(int k, int n) {
+        return Math.max(1, Math.min(k, 32 - Integer.numberOfLeadingZeros(n)));
+    }
+
+    // Helper method for C(moves, 1) + ... + C(moves, k), saturated at limit
+    private static long levels(int moves, int k, int limit) {
+        long sum = 0;
+        long term = 1; // C(moves, 0)
+        for (int i = 1; i <= k && i <= moves; i++) {
+            // term < limit here, so term * (moves - i + 1) fits in a long and divides exactly by i
+            term = term * (moves - i + 1) / i;
+            sum += term;
+            if (sum >= limit) return limit; // Enough levels, stop early
+        }
+        return sum;
+    }
+
+    // Same answer as minMeasurementsFast, cached per (k, n) and safe to call from many threads
+    public static int minMeasurementsCached(int k, int n) {
+        if (k < 1) throw new IllegalArgumentException("k must be at least 1");
+        k = usefulSamples(k, n); // Larger k give the same answer, so they share one entry
+        long key = ((long) k << 32) | (n & 0xFFFFFFFFL);
+        synchronized (CACHE) {
+            Integer cached = CACHE.get(key);
+            if (cached != null) return cached;
+        }
+        int moves = minMeasurementsFast(k, n); // Computed outside the lock, other threads keep reading
+        synchronized (CACHE) {
+            CACHE.put(key, moves);
+        }
+        return moves;
+    }
+
+    // Immutable table of dp[i][moves] for 1 <= i <= maxSamples and 0 <= moves <= maxMoves
+    static final class CapacityTable {
+        private final int maxSamples; // Largest k the table answers
+        private final int maxMoves;   // Largest number of moves stored per row
+        private final long[] levels;  // Row-major dp values, row i starts at (i - 1) * (maxMoves + 1)
+
+        public CapacityTable(int maxSamples, int maxMoves) {
+            if (maxSamples < 1 || maxMoves < 0) throw new IllegalArgumentException("limits must be positive");
+            if ((long) maxSamples * (maxMoves + 1) > Integer.MAX_VALUE) throw new IllegalArgumentException("table too large");
+            this.maxSamples = maxSamples;
+            this.maxMoves = maxMoves;
+            this.levels = new long[maxSamples * (maxMoves + 1)];
+
+            int width = maxMoves + 1;
+            for (int i = 1; i <= maxSamples; i++) {
+                int row = (i - 1) * width;
+                int below = row - width; // Row i - 1, or none when i == 1
+                for (int m = 1; m <= maxMoves; m++) {
+                    long fewerSamples = i == 1 ? 0 : levels[below + m - 1]; // dp[i - 1][m - 1]
+                    long sum = 1 + fewerSamples + levels[row + m - 1];       // 1 + dp[i - 1][m - 1] + dp[i][m - 1]
+                    levels[row + m] = sum < 0 ? Long.MAX_VALUE : sum;       // Saturate instead of overflowing
+                }
+            }
+        }
+
+        // Method for the inverse query: the most levels k samples can cover with the given moves
+        public long maxLevels(int k, int moves) {
+            checkSamples(k);
+            if (moves < 0 || moves > maxMoves) throw new IllegalArgumentException("moves out of table range");
+            return levels[(k - 1) * (maxMoves + 1) + moves];
+        }
+
+        // Method to find the minimum moves for n levels with k samples by binary search in row k
+        public int minMeasurements(int k, long n) {
+            checkSamples(k);
+            int row = (k - 1) * (maxMoves + 1);
+            if (levels[row + maxMoves] < n) throw new IllegalArgumentException("n needs more than maxMoves moves");
+            int l = 0, r = maxMoves;
+            while (l < r) {
+                int mid = (l + r) >>> 1;
+                if (levels[row + mid] >= n) r = mid;
+                else l = mid + 1;
+            }
+            return l;
+        }
+
+        // Helper method to validate the number of samples
+        private void checkSamples(int k) {
+            if (k < 1 || k > maxSamples) throw new IllegalArgumentException("k out of table range");
+        }
+    }
+
     // Main method to test the function with sample cases
     public static void main(String[] args) {
         System.out.println(minMeasurements(1, 2));  // Expected output: 2
         System.out.println(minMeasurements(2, 6));  // Expected output: 3
         System.out.println(minMeasurements(3, 14)); // Expected output: 4
+
+        // Same cases with the O(k) memory solvers
+        System.out.println(minMeasurementsRolling(3, 14)); // Expected output: 4
+        System.out.println(minMeasurementsFast(3, 14));    // Expected output: 4
+
+        // Inputs far too large for the full table
+        System.out.println(minMeasurementsFast(2, 1_000_000_000));   // Expected output: 44721
+        System.out.println(minMeasurementsCached(100, 1_000_000_000)); // Expected output: 30
+
+        // Lookups against a table built once
+        CapacityTable table = new CapacityTable(8, 64);
+        System.out.println(table.minMeasurements(3, 14)); // Expected output: 4
+        System.out.println(table.maxLevels(2, 3));        // Expected output: 6
     }
 }
 
@@ -77,4 +246,10 @@ public class Q1_aAns { // Define a public class named Q1_aAns
 //Output
 // 2
 // 3
-// 4
\ No newline at end of file
+// 4
+// 4
+// 4
+// 44721
+// 30
+// 4
+// 6
\ No newline at end of file
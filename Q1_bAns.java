@@ -29,10 +29,37 @@ Complexity:
 Time: O((m + n) * log(max_product))
 
 Space: O(1)
+
+Parallel Mode (kthSmallestProductParallel):
+
+Each count(mid) call is split into ranges of nums1 that are counted on a ForkJoinPool and summed.
+
+Arrays shorter than parallelThreshold are counted sequentially.
+
+Linear Mode (kthSmallestProductLinear):
+
+ProductCounter splits both sorted arrays once into negative, zero and positive segments.
+
+Each pair of segments is counted with a monotone two-pointer sweep, so one count costs O(m + n).
+
+The counter is kept and reused while the same pair of arrays is queried with different k.
+
+Batch Mode (kthSmallestProducts):
+
+All ranks share one search over the value range: every probe count splits the sorted ranks into
+those whose answer is <= mid and those whose answer is > mid, and each group keeps searching only its half.
+
+Ranks that fall in the same window share their probes, so the cost grows much slower than the number of ranks.
  */
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 public class Q1_bAns { // Define a class named Q1_bAns
     private int[] nums1; // Declare an array to hold the first set of numbers (nums1)
     private int[] nums2; // Declare an array to hold the second set of numbers (nums2)
+    private int parallelThreshold = 1 << 14; // Ranges of nums1 shorter than this are counted on one thread
+    private ForkJoinPool pool = ForkJoinPool.commonPool(); // Pool used by the parallel mode
+    private ProductCounter counter; // Sign partition of the last pair of arrays used by the linear mode
 
     // Method to find the kth smallest product of two numbers from nums1 and nums2
     public long kthSmallestProduct(int[] nums1, int[] nums2, long k) {
@@ -63,13 +90,111 @@ public class Q1_bAns { // Define a class named Q1_bAns
         return l; // Return the value of l, which is the kth smallest product
     }
 
+    // Same as kthSmallestProduct, but every count is split across the ForkJoinPool
+    public long kthSmallestProductParallel(int[] nums1, int[] nums2, long k) {
+        this.nums1 = nums1; // Assign the input array nums1 to the class-level variable
+        this.nums2 = nums2; // Assign the input array nums2 to the class-level variable
+
+        int m = nums1.length; // Length of nums1
+        int n = nums2.length; // Length of nums2
+
+        // Calculate the maximum absolute values of nums1 and nums2
+        int a = Math.max(Math.abs(nums1[0]), Math.abs(nums1[m - 1]));
+        int b = Math.max(Math.abs(nums2[0]), Math.abs(nums2[n - 1]));
+
+        long r = (long) a * b;  // Upper bound for the product
+        long l = (long) -a * b; // Lower bound for the product
+
+        // Binary search loop, identical to the sequential one apart from the count
+        while (l < r) {
+            long mid = (l + r) >> 1;
+            if (countParallel(mid) >= k) {
+                r = mid;
+            } else {
+                l = mid + 1;
+            }
+        }
+
+        return l; // Return the kth smallest product
+    }
+
+    // Same as kthSmallestProduct, but counts with the O(m + n) two-pointer ProductCounter.
+    // The counter is reused while the same array instances are passed, so they must not be modified in between.
+    public long kthSmallestProductLinear(int[] nums1, int[] nums2, long k) {
+        return counterFor(nums1, nums2).kth(k);
+    }
+
+    // Method to find the kth smallest product for every rank in ks (sorted ascending) in one shared search
+    public long[] kthSmallestProducts(int[] nums1, int[] nums2, long[] ks) {
+        return counterFor(nums1, nums2).kth(ks);
+    }
+
+    // Helper method to reuse the sign partition of the last pair of arrays
+    private ProductCounter counterFor(int[] nums1, int[] nums2) {
+        ProductCounter c = counter;
+        if (c == null || c.nums1 != nums1 || c.nums2 != nums2) {
+            c = new ProductCounter(nums1, nums2); // New pair of arrays, partition them once
+            counter = c;
+        }
+        return c;
+    }
+
+    // Method to tune the size below which counting stays on the calling thread
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 1) throw new IllegalArgumentException("parallelThreshold must be positive");
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    // Method to run the parallel mode on a different pool than the common pool
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Helper method to count products <= p with nums1 split across the pool
+    private long countParallel(long p) {
+        if (nums1.length < parallelThreshold) return count(p); // Small input, stay sequential
+        return pool.invoke(new CountTask(p, 0, nums1.length));
+    }
+
+    // Fork-join task that counts products <= p for nums1[from, to)
+    private class CountTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final long p; // Value the products are compared with
+        private final int from, to; // Range of nums1 handled by this task
+
+        CountTask(long p, int from, int to) {
+            this.p = p;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= parallelThreshold) {
+                return count(p, from, to); // Small range, count it directly
+            }
+            int mid = (from + to) >>> 1; // Split the range in half
+            CountTask left = new CountTask(p, from, mid);
+            left.fork(); // Count the left half asynchronously
+            long right = new CountTask(p, mid, to).compute(); // Count the right half on this thread
+            return left.join() + right; // Sum the partial counts
+        }
+    }
+
     // Helper method to count how many products are less than or equal to a given value p
     private long count(long p) {
+        return count(p, 0, nums1.length);
+    }
+
+    // Helper method to count products <= p using only the elements nums1[from, to)
+    private long count(long p, int from, int to) {
         long cnt = 0; // Variable to hold the count of products less than or equal to p
         int n = nums2.length; // Length of nums2
         
-        // Iterate over each element in nums1
-        for (int x : nums1) {
+        // Iterate over each element in the range of nums1
+        for (int i = from; i < to; i++) {
+            int x = nums1[i];
             if (x > 0) { // If x is positive, find how many products are less than or equal to p
                 int l = 0, r = n;
                 while (l < r) {
@@ -100,6 +225,121 @@ public class Q1_bAns { // Define a class named Q1_bAns
         return cnt; // Return the total count of valid products
     }
 
+    // Counts products <= p in O(m + n) using the sign segments of two sorted arrays
+    static class ProductCounter {
+        final int[] nums1, nums2; // Sorted input arrays
+        final int neg1, pos1; // nums1[0, neg1) < 0, nums1[neg1, pos1) == 0, nums1[pos1, m) > 0
+        final int neg2, pos2; // Same split points for nums2
+        final long zeroProducts; // Number of pairs with at least one zero factor
+
+        ProductCounter(int[] nums1, int[] nums2) {
+            this.nums1 = nums1;
+            this.nums2 = nums2;
+            neg1 = firstAtLeast(nums1, 0);
+            pos1 = firstAtLeast(nums1, 1);
+            neg2 = firstAtLeast(nums2, 0);
+            pos2 = firstAtLeast(nums2, 1);
+            long z1 = pos1 - neg1, z2 = pos2 - neg2;
+            zeroProducts = z1 * nums2.length + z2 * nums1.length - z1 * z2;
+        }
+
+        // Helper method to find the first index whose value is >= target
+        private static int firstAtLeast(int[] nums, int target) {
+            int l = 0, r = nums.length;
+            while (l < r) {
+                int mid = (l + r) >>> 1;
+                if (nums[mid] < target) l = mid + 1;
+                else r = mid;
+            }
+            return l;
+        }
+
+        // Method to find the kth smallest product with the same binary search as kthSmallestProduct
+        long kth(long k) {
+            long a = Math.max(Math.abs((long) nums1[0]), Math.abs((long) nums1[nums1.length - 1]));
+            long b = Math.max(Math.abs((long) nums2[0]), Math.abs((long) nums2[nums2.length - 1]));
+            long l = -a * b, r = a * b;
+            while (l < r) {
+                long mid = (l + r) >> 1;
+                if (count(mid) >= k) r = mid;
+                else l = mid + 1;
+            }
+            return l;
+        }
+
+        // Method to find the answers for all sorted ranks in ks with shared probes
+        long[] kth(long[] ks) {
+            for (int i = 1; i < ks.length; i++) {
+                if (ks[i] < ks[i - 1]) throw new IllegalArgumentException("ks must be sorted in ascending order");
+            }
+            long[] answers = new long[ks.length];
+            if (ks.length == 0) return answers;
+            long a = Math.max(Math.abs((long) nums1[0]), Math.abs((long) nums1[nums1.length - 1]));
+            long b = Math.max(Math.abs((long) nums2[0]), Math.abs((long) nums2[nums2.length - 1]));
+            kth(ks, answers, 0, ks.length, -a * b, a * b);
+            return answers;
+        }
+
+        // Recursive helper: every rank in ks[from, to) has its answer inside the value window [l, r]
+        private void kth(long[] ks, long[] answers, int from, int to, long l, long r) {
+            if (from == to) return; // No ranks left in this window
+            if (l == r) {
+                for (int i = from; i < to; i++) answers[i] = l; // Window closed, all ranks share the value
+                return;
+            }
+            long mid = (l + r) >> 1;
+            long c = count(mid); // One probe serves every rank in the window
+
+            // Ranks k <= c have their answer in [l, mid], the rest in [mid + 1, r]
+            int split = from;
+            while (split < to && ks[split] <= c) split++;
+            kth(ks, answers, from, split, l, mid);
+            kth(ks, answers, split, to, mid + 1, r);
+        }
+
+        // Method to count how many products are less than or equal to p
+        long count(long p) {
+            int m = nums1.length, n = nums2.length;
+            long cnt = p >= 0 ? zeroProducts : 0; // All products with a zero factor are 0
+
+            if (p >= 0) {
+                // Negative products are all <= p
+                cnt += (long) (m - pos1) * neg2 + (long) neg1 * (n - pos2);
+
+                // Positive x, positive y: as x grows, the valid prefix of positive y shrinks
+                int j = n;
+                for (int i = pos1; i < m; i++) {
+                    while (j > pos2 && (long) nums1[i] * nums2[j - 1] > p) j--;
+                    if (j == pos2) break; // No positive y is small enough for larger x either
+                    cnt += j - pos2;
+                }
+
+                // Negative x, negative y: as |x| grows, the valid suffix of negative y shrinks
+                j = 0;
+                for (int i = neg1 - 1; i >= 0; i--) {
+                    while (j < neg2 && (long) nums1[i] * nums2[j] > p) j++;
+                    if (j == neg2) break;
+                    cnt += neg2 - j;
+                }
+            } else {
+                // Positive x, negative y: as x grows, the valid prefix of negative y grows
+                int j = 0;
+                for (int i = pos1; i < m; i++) {
+                    while (j < neg2 && (long) nums1[i] * nums2[j] <= p) j++;
+                    cnt += j;
+                }
+
+                // Negative x, positive y: as x gets more negative, the valid suffix of positive y grows
+                j = n;
+                for (int i = neg1 - 1; i >= 0; i--) {
+                    while (j > pos2 && (long) nums1[i] * nums2[j - 1] <= p) j--;
+                    cnt += n - j;
+                }
+            }
+            return cnt;
+        }
+    }
+
     // Main method to test the functionality of the kthSmallestProduct method
     public static void main(String[] args) {
         Q1_bAns qno1B = new Q1_bAns(); // Create an instance of the Qno1B class
@@ -109,9 +349,27 @@ public class Q1_bAns { // Define a class named Q1_bAns
         
         // Test Case 2
         System.out.println(qno1B.kthSmallestProduct(new int[]{-4, -2, 0, 3}, new int[]{2, 4}, 6)); // Expected output: 0
+
+        // Test Case 3: Parallel mode with a tiny threshold so the work is actually split
+        qno1B.setParallelThreshold(1);
+        System.out.println(qno1B.kthSmallestProductParallel(new int[]{-4, -2, 0, 3}, new int[]{2, 4}, 6)); // Expected output: 0
+
+        // Test Case 4: Linear mode, the second query reuses the partition of the same arrays
+        int[] nums1 = {-2, -1, 0, 1, 2};
+        int[] nums2 = {-3, -1, 2, 4, 5};
+        System.out.println(qno1B.kthSmallestProductLinear(nums1, nums2, 3)); // Expected output: -6
+        System.out.println(qno1B.kthSmallestProductLinear(nums1, nums2, 25)); // Expected output: 10
+
+        // Test Case 5: Several ranks answered in one batch
+        long[] answers = qno1B.kthSmallestProducts(nums1, nums2, new long[]{1, 3, 13, 25});
+        System.out.println(java.util.Arrays.toString(answers)); // Expected output: [-10, -6, 0, 10]
     }
 }
 
 // Output
 // 8
-// 0
\ No newline at end of file
+// 0
+// 0
+// -6
+// 10
+// [-10, -6, 0, 10]
\ No newline at end of file
@@ -21,7 +21,47 @@ Complexity:
 Time: O(n)
 
 Space: O(n)
+
+Streaming Approach (employeeStreaming):
+
+Read the ratings once from left to right and only remember the current slope:
+
+up: length of the current increasing run, down: length of the current decreasing run,
+peak: height of the last peak.
+
+An increasing step gives the new employee up + 1 candies.
+
+A decreasing step gives one extra candy to every employee of the decreasing run,
+and to the peak too once the run becomes longer than the peak.
+
+An equal step resets the slope, the employee gets 1 candy.
+
+Time: O(n), Space: O(1), the total is kept in a long.
+
+Parallel Approach (employeeParallel):
+
+An employee rated no higher than both neighbours (a local minimum) always gets exactly 1 candy,
+so the ratings can be cut at local minima into pieces that do not affect each other.
+
+The array is split into equal ranges, and every range moves its start to the next local minimum.
+
+Each piece is solved with the slope method on a ForkJoinPool and the totals are summed.
+
+A monotone run longer than a range stays in one piece, so it is solved on one thread.
+
+Incremental Approach (CandyTracker):
+
+Each employee's candies are max(up[i], down[i]), where up[i] is the length of the increasing run ending at i
+and down[i] is the length of the decreasing run starting at i.
+
+Changing one rating only changes up[] to the right of it and down[] to the left of it until the runs
+settle to their old values, so an update costs the length of the affected runs instead of O(n).
  */
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
 public class Q2_aAns { // Define a public class named QNQ2_aAns 
 
     // Method to determine the minimum number of candies needed for employees based on ratings
@@ -61,6 +101,191 @@ public class Q2_aAns { // Define a public class named QNQ2_aAns
         return rewards; // Return the total number of candies needed
     }
 
+    // Method to compute the same minimum total from a stream of ratings without storing them
+    public long employeeStreaming(IntStream ratings) {
+        return employeeStreaming(ratings.iterator());
+    }
+
+    // Method to compute the same minimum total in one forward pass over a primitive iterator
+    public long employeeStreaming(PrimitiveIterator.OfInt ratings) {
+        if (!ratings.hasNext()) return 0; // If no employees, return 0 candies
+
+        long rewards = 1; // The first employee gets 1 candy
+        long up = 0, down = 0, peak = 0; // Current increasing run, decreasing run and last peak
+        int previous = ratings.nextInt();
+
+        while (ratings.hasNext()) {
+            int rating = ratings.nextInt();
+            if (rating > previous) {
+                up++; // Increasing slope, one more candy than the left neighbour
+                peak = up;
+                down = 0;
+                rewards += 1 + up;
+            } else if (rating == previous) {
+                up = down = peak = 0; // Flat step, the slope starts over with 1 candy
+                rewards += 1;
+            } else {
+                up = 0;
+                down++; // Decreasing slope, every employee in the run gets one more candy
+                rewards += 1 + down;
+                if (peak >= down) rewards--; // The peak is still high enough, it does not need another candy
+            }
+            previous = rating;
+        }
+
+        return rewards; // Return the total number of candies needed
+    }
+
+    // Method to compute the same minimum total with the ratings cut at local minima and solved in parallel
+    public long employeeParallel(int[] ratings) {
+        int n = ratings.length;
+        if (n < PARALLEL_THRESHOLD) return candiesInRange(ratings, 0, n - 1); // Small input, stay sequential
+
+        // Split into a few ranges per core so uneven pieces still balance
+        int pieceSize = Math.max(MIN_PIECE_SIZE, n / (ForkJoinPool.getCommonPoolParallelism() * 4));
+        int pieces = (n + pieceSize - 1) / pieceSize;
+        return ForkJoinPool.commonPool().invoke(new CandyTask(ratings, pieceSize, 0, pieces));
+    }
+
+    private static final int PARALLEL_THRESHOLD = 1 << 20; // Arrays shorter than this are solved sequentially
+    private static final int MIN_PIECE_SIZE = 1 << 16;     // Smallest range handed to one task
+
+    // Fork-join task that sums the candies of the ranges [from, to) of size pieceSize
+    private static class CandyTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] ratings;
+        private final int pieceSize;
+        private final int from, to;
+
+        CandyTask(int[] ratings, int pieceSize, int from, int to) {
+            this.ratings = ratings;
+            this.pieceSize = pieceSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from == 1) return solvePiece(); // One range left, solve it
+            int mid = (from + to) >>> 1;
+            CandyTask left = new CandyTask(ratings, pieceSize, from, mid);
+            left.fork(); // Solve the left ranges asynchronously
+            long right = new CandyTask(ratings, pieceSize, mid, to).compute();
+            return left.join() + right;
+        }
+
+        // Helper method to solve the piece between the first local minimum of this range and of the next one
+        private long solvePiece() {
+            int n = ratings.length;
+            int lo = from * pieceSize;
+            int hi = Math.min(lo + pieceSize, n);
+
+            // The piece starts at the first local minimum in [lo, hi), the first range starts at 0
+            int start = lo == 0 ? 0 : nextLocalMin(ratings, lo, hi);
+            if (start == hi) return 0; // No local minimum here, the previous piece covers this range
+
+            // The piece ends just before the first local minimum at or after hi, which belongs to the next piece
+            int end = hi == n ? n : nextLocalMin(ratings, hi, n);
+            if (end == n) return candiesInRange(ratings, start, n - 1);
+            return candiesInRange(ratings, start, end) - 1; // The local minimum at end has 1 candy and is counted by the next piece
+        }
+    }
+
+    // Helper method to find the first local minimum in [from, limit), or limit if there is none
+    private static int nextLocalMin(int[] ratings, int from, int limit) {
+        int n = ratings.length;
+        for (int i = from; i < limit; i++) {
+            boolean leftOk = i == 0 || ratings[i] <= ratings[i - 1];
+            boolean rightOk = i == n - 1 || ratings[i] <= ratings[i + 1];
+            if (leftOk && rightOk) return i;
+        }
+        return limit;
+    }
+
+    // Helper method to solve ratings[from..to] on its own with the slope method of employeeStreaming
+    private static long candiesInRange(int[] ratings, int from, int to) {
+        if (from > to) return 0;
+        long rewards = 1, up = 0, down = 0, peak = 0;
+        for (int i = from + 1; i <= to; i++) {
+            if (ratings[i] > ratings[i - 1]) {
+                up++;
+                peak = up;
+                down = 0;
+                rewards += 1 + up;
+            } else if (ratings[i] == ratings[i - 1]) {
+                up = down = peak = 0;
+                rewards += 1;
+            } else {
+                up = 0;
+                down++;
+                rewards += 1 + down;
+                if (peak >= down) rewards--;
+            }
+        }
+        return rewards;
+    }
+
+    // Keeps the candies of every employee and the total up to date under single rating changes
+    static class CandyTracker {
+        private final int[] ratings; // Current ratings (a private copy)
+        private final int[] up;      // up[i] = length of the strictly increasing run ending at i
+        private final int[] down;    // down[i] = length of the strictly decreasing run starting at i
+        private long total;          // Sum of max(up[i], down[i]) over all employees
+
+        public CandyTracker(int[] ratings) {
+            int n = ratings.length;
+            this.ratings = ratings.clone();
+            this.up = new int[n];
+            this.down = new int[n];
+
+            // Same two passes as employee, kept separately so each side can be repaired on its own
+            for (int i = 0; i < n; i++) {
+                up[i] = i > 0 && this.ratings[i] > this.ratings[i - 1] ? up[i - 1] + 1 : 1;
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                down[i] = i < n - 1 && this.ratings[i] > this.ratings[i + 1] ? down[i + 1] + 1 : 1;
+            }
+            for (int i = 0; i < n; i++) {
+                total += Math.max(up[i], down[i]);
+            }
+        }
+
+        // Method to change one rating and return the new minimum total
+        public long updateRating(int i, int newRating) {
+            int n = ratings.length;
+            ratings[i] = newRating;
+
+            // Repair up[] to the right; from i + 1 on, an unchanged value means the rest is unchanged too
+            for (int j = i; j < n; j++) {
+                int value = j > 0 && ratings[j] > ratings[j - 1] ? up[j - 1] + 1 : 1;
+                if (value == up[j] && j > i) break;
+                total += Math.max(value, down[j]) - Math.max(up[j], down[j]);
+                up[j] = value;
+            }
+
+            // Repair down[] to the left the same way
+            for (int j = i; j >= 0; j--) {
+                int value = j < n - 1 && ratings[j] > ratings[j + 1] ? down[j + 1] + 1 : 1;
+                if (value == down[j] && j < i) break;
+                total += Math.max(up[j], value) - Math.max(up[j], down[j]);
+                down[j] = value;
+            }
+
+            return total;
+        }
+
+        // Method to get the current minimum total
+        public long total() {
+            return total;
+        }
+
+        // Method to get the current candies of employee i
+        public int candies(int i) {
+            return Math.max(up[i], down[i]);
+        }
+    }
+
     public static void main(String[] args) {
         Q2_aAns  sol = new Q2_aAns (); // Create an instance of QNo2A
 
@@ -71,9 +296,27 @@ public class Q2_aAns { // Define a public class named QNQ2_aAns
         // Example 2: Employees with ratings [1, 2, 2]
         int[] ratings2 = {1, 2, 2};
         System.out.println(sol.employee(ratings2)); // Expected output: 4
+
+        // Example 3: Same ratings read as a stream
+        System.out.println(sol.employeeStreaming(IntStream.of(1, 0, 2))); // Expected output: 5
+        System.out.println(sol.employeeStreaming(IntStream.of(1, 3, 4, 5, 2))); // Expected output: 11
+
+        // Example 4: Large random ratings, the parallel total must match the sequential one
+        int[] large = new java.util.Random(7).ints(4_000_000, 0, 1000).toArray();
+        System.out.println(sol.employeeParallel(large) == sol.employee(large)); // Expected output: true
+
+        // Example 5: Keep the total up to date while ratings change
+        CandyTracker tracker = new CandyTracker(new int[]{1, 0, 2});
+        System.out.println(tracker.total()); // Expected output: 5
+        System.out.println(tracker.updateRating(1, 3)); // Ratings become [1, 3, 2], expected output: 4
     }
 }
 
 // Output
 // 5
+// 4
+// 5
+// 11
+// true
+// 5
 // 4
\ No newline at end of file
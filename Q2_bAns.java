@@ -18,6 +18,22 @@ Return the indices of the closest pair.
 Time: O(n^2) (checking all pairs).
 
 Space: O(1) (no additional space used).
+
+Fast Approach (closestLexicographicalPairFast):
+
+Rotate every point by 45 degrees: u = x + y, v = x - y. The Manhattan distance becomes max(|du|, |dv|).
+
+Find the minimum distance D with divide and conquer over the points sorted by u.
+
+If D == 0, sort indices by (x, y) and take the first two indices of every group of duplicates.
+
+If D > 0, put every point in a D x D grid cell of the rotated plane. Each cell holds at most one point,
+so every pair at distance D lies in neighbouring cells and there are O(n) such pairs to compare.
+
+Complexity:
+Time: O(n log n).
+
+Space: O(n).
  */
 import java.util.*; // Import the Java utilities package for Arrays class
 
@@ -54,14 +70,208 @@ class Q2_bAns{ // Define a class named Q2_bAns
         return result; // Return the indices of the closest lexicographical pair
     }
 
+    // Method to find the same pair as closestLexicographicalPair in O(n log n) time
+    public static int[] closestLexicographicalPairFast(int[] x_coords, int[] y_coords) {
+        int n = x_coords.length; // Get the number of points
+        int[] result = new int[2]; // Array to store the indices of the closest pair
+        if (n < 2) return result; // No pair exists, same answer as the brute-force method
+
+        // Rotate the points by 45 degrees so that Manhattan distance becomes Chebyshev distance
+        long[] u = new long[n];
+        long[] v = new long[n];
+        for (int i = 0; i < n; i++) {
+            u[i] = (long) x_coords[i] + y_coords[i];
+            v[i] = (long) x_coords[i] - y_coords[i];
+        }
+
+        // Step 1: Find the minimum distance with divide and conquer over the points sorted by u
+        int[] order = identity(n);
+        sortByKeys(order, u, v);
+        long minDistance = closestDistance(u, v, order, new int[n], 0, n);
+
+        int[] idx = identity(n); // Indices are sorted stably, so equal keys keep ascending index order
+        int bestI = Integer.MAX_VALUE, bestJ = Integer.MAX_VALUE;
+
+        if (minDistance == 0) {
+            // Step 2a: Duplicate points, the smallest pair of every group is its first two indices
+            long[] xs = new long[n];
+            long[] ys = new long[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = x_coords[i];
+                ys[i] = y_coords[i];
+            }
+            sortByKeys(idx, xs, ys);
+            for (int k = 1; k < n; k++) {
+                int i = idx[k - 1], j = idx[k];
+                boolean groupStart = k == 1 || xs[idx[k - 2]] != xs[i] || ys[idx[k - 2]] != ys[i];
+                if (groupStart && xs[i] == xs[j] && ys[i] == ys[j]) {
+                    if (i < bestI || (i == bestI && j < bestJ)) {
+                        bestI = i;
+                        bestJ = j;
+                    }
+                }
+            }
+        } else {
+            // Step 2b: Bucket points into D x D cells, each cell holds at most one point
+            long[] cellU = new long[n];
+            long[] cellV = new long[n];
+            for (int i = 0; i < n; i++) {
+                cellU[i] = Math.floorDiv(u[i], minDistance);
+                cellV[i] = Math.floorDiv(v[i], minDistance);
+            }
+            sortByKeys(idx, cellU, cellV);
+
+            // Step 3: Compare every point with the points in the 3 x 3 block of cells around it
+            for (int i = 0; i < n; i++) {
+                for (long du = -1; du <= 1; du++) {
+                    for (long dv = -1; dv <= 1; dv++) {
+                        int pos = findCell(idx, cellU, cellV, cellU[i] + du, cellV[i] + dv);
+                        if (pos < 0) continue; // Empty cell
+                        int j = idx[pos];
+                        if (j <= i) continue; // Every pair is checked once, from its smaller index
+                        long distance = Math.max(Math.abs(u[i] - u[j]), Math.abs(v[i] - v[j]));
+                        if (distance == minDistance && (i < bestI || (i == bestI && j < bestJ))) {
+                            bestI = i;
+                            bestJ = j;
+                        }
+                    }
+                }
+            }
+        }
+
+        result[0] = bestI; // Store index i
+        result[1] = bestJ; // Store index j
+        return result; // Return the indices of the closest lexicographical pair
+    }
+
+    // Recursive helper: minimum Chebyshev distance among order[lo, hi), which must be sorted by u.
+    // On return order[lo, hi) is sorted by v instead.
+    private static long closestDistance(long[] u, long[] v, int[] order, int[] aux, int lo, int hi) {
+        long best = Long.MAX_VALUE;
+        if (hi - lo <= 3) {
+            // Few points left, compare all pairs and sort them by v with insertion sort
+            for (int a = lo; a < hi; a++) {
+                for (int b = a + 1; b < hi; b++) {
+                    best = Math.min(best, chebyshev(u, v, order[a], order[b]));
+                }
+            }
+            for (int a = lo + 1; a < hi; a++) {
+                int p = order[a];
+                int b = a - 1;
+                while (b >= lo && v[order[b]] > v[p]) {
+                    order[b + 1] = order[b];
+                    b--;
+                }
+                order[b + 1] = p;
+            }
+            return best;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        long midU = u[order[mid]]; // Dividing line, read before the halves are re-sorted by v
+        best = Math.min(closestDistance(u, v, order, aux, lo, mid), closestDistance(u, v, order, aux, mid, hi));
+
+        // Merge the two halves by v
+        int a = lo, b = mid, k = lo;
+        while (a < mid && b < hi) aux[k++] = v[order[a]] <= v[order[b]] ? order[a++] : order[b++];
+        while (a < mid) aux[k++] = order[a++];
+        while (b < hi) aux[k++] = order[b++];
+        System.arraycopy(aux, lo, order, lo, hi - lo);
+
+        // Collect the points closer than best to the dividing line, already sorted by v
+        int size = lo;
+        for (int i = lo; i < hi; i++) {
+            if (Math.abs(u[order[i]] - midU) < best) aux[size++] = order[i];
+        }
+
+        // Only a constant number of strip neighbours can be closer than best in v
+        for (int i = lo; i < size; i++) {
+            for (int j = i + 1; j < size && v[aux[j]] - v[aux[i]] < best; j++) {
+                best = Math.min(best, chebyshev(u, v, aux[i], aux[j]));
+            }
+        }
+        return best;
+    }
+
+    // Helper method for the distance between two rotated points, equal to their Manhattan distance
+    private static long chebyshev(long[] u, long[] v, int i, int j) {
+        return Math.max(Math.abs(u[i] - u[j]), Math.abs(v[i] - v[j]));
+    }
+
+    // Helper method to create the index array [0, 1, ..., n - 1]
+    private static int[] identity(int n) {
+        int[] idx = new int[n];
+        for (int i = 0; i < n; i++) idx[i] = i;
+        return idx;
+    }
+
+    // Stable bottom-up merge sort of indices by (k1, k2), avoiding boxed comparators
+    private static void sortByKeys(int[] idx, long[] k1, long[] k2) {
+        int n = idx.length;
+        int[] src = idx, dst = new int[n];
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n; lo += width << 1) {
+                int mid = Math.min(lo + width, n), hi = Math.min(lo + (width << 1), n);
+                int a = lo, b = mid, k = lo;
+                while (a < mid && b < hi) {
+                    int pa = src[a], pb = src[b];
+                    boolean takeB = k1[pb] < k1[pa] || (k1[pb] == k1[pa] && k2[pb] < k2[pa]);
+                    dst[k++] = takeB ? src[b++] : src[a++];
+                }
+                while (a < mid) dst[k++] = src[a++];
+                while (b < hi) dst[k++] = src[b++];
+            }
+            int[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        if (src != idx) System.arraycopy(src, 0, idx, 0, n);
+    }
+
+    // Binary search for the position of cell (cu, cv) in idx sorted by (cellU, cellV), or -1 if empty
+    private static int findCell(int[] idx, long[] cellU, long[] cellV, long cu, long cv) {
+        int l = 0, r = idx.length;
+        while (l < r) {
+            int mid = (l + r) >>> 1;
+            int p = idx[mid];
+            if (cellU[p] < cu || (cellU[p] == cu && cellV[p] < cv)) {
+                l = mid + 1;
+            } else {
+                r = mid;
+            }
+        }
+        if (l < idx.length && cellU[idx[l]] == cu && cellV[idx[l]] == cv) return l;
+        return -1;
+    }
+
     public static void main(String[] args) {
         int[] x_coords = {1, 2, 3, 2, 4}; // X-coordinates of points
         int[] y_coords = {2, 3, 1, 2, 3}; // Y-coordinates of points
 
         int[] result = closestLexicographicalPair(x_coords, y_coords); // Find the closest pair
         System.out.println(Arrays.toString(result)); // Expected output: [0, 3]
+
+        int[] fast = closestLexicographicalPairFast(x_coords, y_coords); // Same query with the fast method
+        System.out.println(Arrays.toString(fast)); // Expected output: [0, 3]
+
+        // Differential check of the fast method against the brute-force reference on random points
+        Random random = new Random(42);
+        boolean same = true;
+        for (int t = 0; t < 500; t++) {
+            int n = 2 + random.nextInt(60);
+            int range = 1 + random.nextInt(50);
+            int[] xs = new int[n], ys = new int[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = random.nextInt(range) - range / 2;
+                ys[i] = random.nextInt(range) - range / 2;
+            }
+            same &= Arrays.equals(closestLexicographicalPair(xs, ys), closestLexicographicalPairFast(xs, ys));
+        }
+        System.out.println(same); // Expected output: true
     }
 }
 
 // Output
 // [0,3]
+// [0,3]
+// true
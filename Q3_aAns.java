@@ -34,8 +34,93 @@ Complexity:
 Time: O(E log E) (sorting connections + Union-Find operations).
 
 Space: O(V) (Union-Find data structure).
+
+Allocation-Light Variant (minTotalCostPrimitive):
+
+Pack every connection as one long key: cost in the high 32 bits, connection index in the low 32 bits.
+
+Sort the long[] keys, which orders by cost and keeps the original order for equal costs, with no Edge objects.
+
+Stop as soon as n - 1 unions have been made, the rest of the edges cannot change the tree.
+
+Concurrent Union-Find (ConcurrentUnionFind):
+
+Parents live in an AtomicIntegerArray so several threads can union at the same time without a lock.
+
+find is iterative with path halving, a failed compareAndSet is simply skipped because another thread already
+shortened the path. union links one root under the other with compareAndSet and retries only if a root moved.
+
+Roots are linked by a fixed pseudo-random priority of their index, which keeps the trees shallow like union by rank.
+
+Filter-Kruskal (MstMode.FILTER_KRUSKAL):
+
+Pick a random pivot cost and split the edges into cheaper, equal and more expensive ones.
+
+Solve the cheaper edges first, then the equal ones, then drop every expensive edge whose devices are
+already connected before recursing on the rest. Dropped edges are never sorted.
+
+The filter step only calls find, so it runs in parallel over the ConcurrentUnionFind.
+
+Small edge sets are solved with the packed-key sort. Run main with --bench to compare the modes.
+
+Online Spanning Forest (DynamicMst):
+
+DynamicMst is not a polylogarithmic dynamic MST: it is an online forest for streams that mostly add connections.
+The current spanning forest is kept in a link-cut tree where every connection is its own node,
+so the most expensive connection on the path between two devices is found in O(log n) amortized.
+
+Adding a connection between connected devices replaces the most expensive connection on that path if the new one
+is cheaper. Otherwise it is linked directly.
+
+Connections left out of the forest are kept in a TreeSet ordered by cost. Removing a forest connection cuts it
+and links the cheapest left-out connection that joins the two halves again, which is the cut property of MSTs.
+That search stops at the first match, but in a dense graph it can scan every cheap left-out connection,
+O(E log n) per removal. Adding a connection and removing a left-out one take O(log n) amortized.
+
+Batched Dynamic MST (MstTimeline):
+
+MstTimeline records device and connection changes and answers the forest cost and the number of groups after
+every change with a divide-and-conquer over time. A removed connection has weight +infinity,
+and device 1 is linked to every other device by a virtual connection heavier than any real one, so the graph is
+always connected and the virtual connections used count the extra groups.
+
+For a time range [l, r], the connections changed inside it are dynamic and the rest keep their weight:
+- Contraction: with dynamic connections at -infinity, the static connections Kruskal still takes are in the forest
+  at every time in the range, so their devices are merged and their cost is added.
+- Reduction: with dynamic connections at +infinity, the static connections Kruskal skips are never in the forest
+  in the range, so they are dropped.
+Afterwards the graph has O(r - l) devices and connections, and both halves of the range recurse on it.
+
+Changes recorded since the last answer form a pending batch. A query inside it solves only that batch, starting
+from the connections present before it, and keeps the answers. Then the batch is compacted away: the recorded
+changes are dropped, and the ids of removed connections are reused, so earlier changes are never solved again.
+
+Time: O((n + E) log E + b log^2 b) per batch of b changes on E present connections. That is O(log^2 b) amortized
+per change when batches have at least about E changes, as with a period's changes answered together. Asking after
+every single change costs about one Kruskal run per query, like DynamicMst's worst case.
+
+Memory-Mapped Edge Files (MappedEdgeFile):
+
+A binary edge file is a flat list of 12-byte records: device1, device2 and cost as big-endian ints, devices 1-indexed.
+
+The file is mapped with FileChannel.map in segments below 2 GB, and the packed-key Kruskal reads the records
+straight from the mapped buffers, so only one long key per connection lives on the heap.
+
+writeEdgeFile and convertTextEdges create such files from an int[][] or a text file of "device1 device2 cost" lines.
  */
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*; // Importing necessary classes from the Java utility package
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 public class Q3_aAns { // Define the main class Q3_aAns
     // Define the Edge class to represent an edge between two devices with a cost
@@ -95,6 +180,870 @@ public class Q3_aAns { // Define the main class Q3_aAns
         }
     }
 
+    // Lock-free Union-Find that many threads can update at the same time
+    static class ConcurrentUnionFind {
+        private final AtomicIntegerArray parent; // Parent of each device, a root is its own parent
+        private final AtomicInteger components;  // Number of disjoint sets left
+
+        // Constructor to initialize every device as its own set
+        public ConcurrentUnionFind(int n) {
+            parent = new AtomicIntegerArray(n);
+            for (int i = 0; i < n; i++) {
+                parent.set(i, i);
+            }
+            components = new AtomicInteger(n);
+        }
+
+        // Find method with iterative path halving, never waits on other threads
+        public int find(int u) {
+            while (true) {
+                int p = parent.get(u);
+                if (p == u) return u; // u is a root
+                int gp = parent.get(p);
+                if (p != gp) {
+                    parent.compareAndSet(u, p, gp); // Point u at its grandparent, skip if another thread already moved it
+                }
+                u = gp;
+            }
+        }
+
+        // Union method that links the root with the lower priority under the other one
+        public boolean union(int u, int v) {
+            while (true) {
+                int rootU = find(u);
+                int rootV = find(v);
+                if (rootU == rootV) return false; // They are already in the same set
+                if (priority(rootU) > priority(rootV)) { // Always link the lower priority root
+                    int tmp = rootU;
+                    rootU = rootV;
+                    rootV = tmp;
+                }
+                if (parent.compareAndSet(rootU, rootU, rootV)) { // Fails only if rootU stopped being a root
+                    components.decrementAndGet();
+                    return true; // Successfully unioned
+                }
+            }
+        }
+
+        // Method to check if u and v are in the same set, consistent while other threads union
+        public boolean connected(int u, int v) {
+            while (true) {
+                int rootU = find(u);
+                int rootV = find(v);
+                if (rootU == rootV) return true;
+                if (parent.get(rootU) == rootU) return false; // rootU was still a root, so the sets were different
+            }
+        }
+
+        // Method to get the number of disjoint sets left
+        public int components() {
+            return components.get();
+        }
+
+        // Helper method for a fixed pseudo-random total order of the devices (odd multiplier is a bijection)
+        private static int priority(int u) {
+            return u * 0x9E3779B1;
+        }
+    }
+
+    // Available engines for the spanning tree part of minTotalCost
+    enum MstMode {
+        SORT_ALL,       // Edge objects sorted with a comparator (the original method)
+        PRIMITIVE_SORT, // Packed long keys sorted with Arrays.sort
+        FILTER_KRUSKAL  // Partition by random pivots and filter connected edges in parallel
+    }
+
+    // Method to calculate the minimum total cost with the chosen spanning tree engine
+    public static int minTotalCost(int n, int[] modules, int[][] connections, MstMode mode) {
+        switch (mode) {
+            case PRIMITIVE_SORT:
+                return minTotalCostPrimitive(n, modules, connections);
+            case FILTER_KRUSKAL:
+                int modulesCost = Arrays.stream(modules).min().getAsInt();
+                return new FilterKruskal(n, connections).run() + modulesCost;
+            default:
+                return minTotalCost(n, modules, connections);
+        }
+    }
+
+    // Filter-Kruskal over primitive edge arrays
+    static class FilterKruskal {
+        private static final int BASE_CASE = 1 << 12;        // Edge sets this small are sorted directly
+        private static final int PARALLEL_FILTER = 1 << 16;  // Edge sets this large are filtered in parallel
+
+        private final int n;
+        private final int[] from, to, cost; // Connection endpoints (0-indexed) and costs
+        private final int[] edges;          // Edge indices, rearranged in place by the recursion
+        private final ConcurrentUnionFind uf;
+        private int totalCost;
+        private int unions;
+
+        FilterKruskal(int n, int[][] connections) {
+            int m = connections.length;
+            this.n = n;
+            from = new int[m];
+            to = new int[m];
+            cost = new int[m];
+            edges = new int[m];
+            for (int i = 0; i < m; i++) {
+                from[i] = connections[i][0] - 1; // Convert to 0-indexed
+                to[i] = connections[i][1] - 1;
+                cost[i] = connections[i][2];
+                edges[i] = i;
+            }
+            uf = new ConcurrentUnionFind(n);
+        }
+
+        // Method to compute the cost of the spanning forest
+        int run() {
+            solve(0, edges.length);
+            return totalCost;
+        }
+
+        // Recursive helper for the edges in edges[lo, hi)
+        private void solve(int lo, int hi) {
+            if (hi - lo <= BASE_CASE) {
+                kruskal(lo, hi);
+                return;
+            }
+
+            // Three-way partition around a random pivot cost: [lo, lt) < pivot, [lt, gt) == pivot, [gt, hi) > pivot
+            int pivot = cost[edges[ThreadLocalRandom.current().nextInt(lo, hi)]];
+            int lt = lo, i = lo, gt = hi;
+            while (i < gt) {
+                int c = cost[edges[i]];
+                if (c < pivot) swap(lt++, i++);
+                else if (c > pivot) swap(i, --gt);
+                else i++;
+            }
+
+            solve(lo, lt); // Cheaper edges first
+            for (int k = lt; k < gt && unions < n - 1; k++) {
+                link(edges[k]); // Equal costs need no sorting among themselves
+            }
+            if (unions == n - 1) return; // The tree is complete
+
+            int kept = filter(gt, hi); // Drop expensive edges that would close a cycle
+            solve(gt, kept);
+        }
+
+        // Helper method for small edge sets: sort packed keys and union in order
+        private void kruskal(int lo, int hi) {
+            long[] keys = new long[hi - lo];
+            for (int i = lo; i < hi; i++) {
+                keys[i - lo] = ((long) cost[edges[i]] << 32) | edges[i];
+            }
+            Arrays.sort(keys);
+            for (int i = 0; i < keys.length && unions < n - 1; i++) {
+                link((int) keys[i]);
+            }
+        }
+
+        // Helper method to add one edge to the tree if it joins two sets
+        private void link(int e) {
+            if (uf.union(from[e], to[e])) {
+                totalCost += cost[e];
+                unions++;
+            }
+        }
+
+        // Helper method to move the edges of [lo, hi) that join two sets to the front, returns the new end
+        private int filter(int lo, int hi) {
+            if (hi - lo >= PARALLEL_FILTER) {
+                // Only finds run here, which the concurrent Union-Find allows from many threads
+                boolean[] keep = new boolean[hi - lo];
+                java.util.stream.IntStream.range(lo, hi).parallel().forEach(i -> {
+                    int e = edges[i];
+                    keep[i - lo] = uf.find(from[e]) != uf.find(to[e]);
+                });
+                int out = lo;
+                for (int i = lo; i < hi; i++) {
+                    if (keep[i - lo]) edges[out++] = edges[i];
+                }
+                return out;
+            }
+            int out = lo;
+            for (int i = lo; i < hi; i++) {
+                int e = edges[i];
+                if (uf.find(from[e]) != uf.find(to[e])) edges[out++] = e;
+            }
+            return out;
+        }
+
+        // Helper method to swap two positions of the edge index array
+        private void swap(int a, int b) {
+            int tmp = edges[a];
+            edges[a] = edges[b];
+            edges[b] = tmp;
+        }
+    }
+
+    // Online spanning forest for streams that mostly add connections; removing a forest connection can scan
+    // many left-out connections (see MstTimeline for batched changes)
+    static class DynamicMst {
+        private static final int FREE = 0, DEVICE = 1, TREE = 2, NON_TREE = 3; // Node states
+
+        // Link-cut tree arrays, node 0 is the empty sentinel
+        private int[] left = new int[16], right = new int[16], parent = new int[16];
+        private boolean[] flipped = new boolean[16]; // Pending reversal of the splay subtree
+        private int[] best = new int[16];            // Node with the highest value in the splay subtree
+        private long[] value = new long[16];         // Connection cost, Long.MIN_VALUE for devices
+        private int[] state = new int[16];
+        private int[] endA = new int[16], endB = new int[16]; // Device nodes of each connection node
+        private int[] stack = new int[16];           // Scratch space for splay
+        private int nodes = 1;                       // Next unused node
+
+        private int[] freeNodes = new int[16]; // Connection nodes released by removeConnection
+        private int freeCount;
+        private int[] deviceNode = new int[16]; // Node of every device, devices are 1-indexed
+        private int devices;
+
+        private final TreeSet<Long> nonTree = new TreeSet<>(); // (cost << 32) | node of left-out connections
+        private long forestCost; // Total cost of the forest connections
+        private int treeEdges;   // Number of forest connections
+
+        // Constructor to create devices 1..n with no connections
+        public DynamicMst(int n) {
+            for (int i = 0; i < n; i++) {
+                addDevice();
+            }
+        }
+
+        // Method to add a device, returns its 1-indexed number
+        public int addDevice() {
+            int node = newNode(Long.MIN_VALUE, DEVICE);
+            devices++;
+            if (devices >= deviceNode.length) deviceNode = Arrays.copyOf(deviceNode, deviceNode.length * 2);
+            deviceNode[devices] = node;
+            return devices;
+        }
+
+        // Method to add a connection between two devices, returns an id for removeConnection
+        public int addConnection(int device1, int device2, int cost) {
+            int u = node(device1), v = node(device2);
+            int e = newNode(cost, NON_TREE);
+            endA[e] = u;
+            endB[e] = v;
+
+            if (!connected(u, v)) {
+                linkEdge(e); // Joins two trees, always part of the forest
+            } else if (u != v) {
+                int heaviest = pathMax(u, v);
+                if (value[heaviest] > cost) { // The new connection is cheaper, swap it in
+                    cutEdge(heaviest);
+                    nonTree.add(key(heaviest));
+                    linkEdge(e);
+                } else {
+                    nonTree.add(key(e));
+                }
+            } else {
+                nonTree.add(key(e)); // A connection from a device to itself never helps
+            }
+            return e;
+        }
+
+        // Method to remove a connection added earlier
+        public void removeConnection(int id) {
+            if (id <= 0 || id >= nodes || (state[id] != TREE && state[id] != NON_TREE)) {
+                throw new IllegalArgumentException("unknown connection " + id);
+            }
+            if (state[id] == NON_TREE) {
+                nonTree.remove(key(id)); // Not in the forest, nothing else changes
+            } else {
+                cutEdge(id);
+                // Cheapest left-out connection that joins the two halves again
+                for (Iterator<Long> it = nonTree.iterator(); it.hasNext(); ) {
+                    int e = (int) (long) it.next();
+                    if (!connected(endA[e], endB[e])) {
+                        it.remove();
+                        linkEdge(e);
+                        break;
+                    }
+                }
+            }
+            releaseNode(id);
+        }
+
+        // Method to get the total cost of the current spanning forest
+        public long forestCost() {
+            return forestCost;
+        }
+
+        // Method to get the number of connected groups of devices
+        public int components() {
+            return devices - treeEdges;
+        }
+
+        // Method to check if two devices are connected
+        public boolean devicesConnected(int device1, int device2) {
+            return connected(node(device1), node(device2));
+        }
+
+        // Helper method to get the node of a device, rejecting numbers outside 1..devices
+        private int node(int device) {
+            if (device < 1 || device > devices) throw new IllegalArgumentException("unknown device " + device);
+            return deviceNode[device];
+        }
+
+        // Helper method to put a connection node into the forest
+        private void linkEdge(int e) {
+            link(endA[e], e);
+            link(e, endB[e]);
+            state[e] = TREE;
+            forestCost += value[e];
+            treeEdges++;
+        }
+
+        // Helper method to take a connection node out of the forest
+        private void cutEdge(int e) {
+            cut(endA[e], e);
+            cut(e, endB[e]);
+            state[e] = NON_TREE;
+            forestCost -= value[e];
+            treeEdges--;
+        }
+
+        // Helper method for the ordering key of a left-out connection
+        private long key(int e) {
+            return (value[e] << 32) | e;
+        }
+
+        // Helper method to allocate a node, reusing released connection nodes first
+        private int newNode(long nodeValue, int nodeState) {
+            int x = freeCount > 0 ? freeNodes[--freeCount] : nodes++;
+            if (x >= left.length) grow();
+            left[x] = right[x] = parent[x] = 0;
+            flipped[x] = false;
+            best[x] = x;
+            value[x] = nodeValue;
+            state[x] = nodeState;
+            return x;
+        }
+
+        // Helper method to release a removed connection node
+        private void releaseNode(int x) {
+            state[x] = FREE;
+            if (freeCount == freeNodes.length) freeNodes = Arrays.copyOf(freeNodes, freeCount * 2);
+            freeNodes[freeCount++] = x;
+        }
+
+        // Helper method to double the capacity of the node arrays
+        private void grow() {
+            int size = left.length * 2;
+            left = Arrays.copyOf(left, size);
+            right = Arrays.copyOf(right, size);
+            parent = Arrays.copyOf(parent, size);
+            flipped = Arrays.copyOf(flipped, size);
+            best = Arrays.copyOf(best, size);
+            value = Arrays.copyOf(value, size);
+            state = Arrays.copyOf(state, size);
+            endA = Arrays.copyOf(endA, size);
+            endB = Arrays.copyOf(endB, size);
+            stack = Arrays.copyOf(stack, size);
+        }
+
+        // Link-cut tree: x is the root of its splay tree
+        private boolean isRoot(int x) {
+            int p = parent[x];
+            return p == 0 || (left[p] != x && right[p] != x);
+        }
+
+        // Link-cut tree: recompute the highest-value node of x's splay subtree
+        private void pull(int x) {
+            int b = x;
+            if (left[x] != 0 && value[best[left[x]]] > value[b]) b = best[left[x]];
+            if (right[x] != 0 && value[best[right[x]]] > value[b]) b = best[right[x]];
+            best[x] = b;
+        }
+
+        // Link-cut tree: apply a pending reversal to x's children
+        private void push(int x) {
+            if (flipped[x]) {
+                int l = left[x];
+                left[x] = right[x];
+                right[x] = l;
+                if (left[x] != 0) flipped[left[x]] ^= true;
+                if (right[x] != 0) flipped[right[x]] ^= true;
+                flipped[x] = false;
+            }
+        }
+
+        // Link-cut tree: rotate x above its parent
+        private void rotate(int x) {
+            int p = parent[x], g = parent[p];
+            boolean parentIsRoot = isRoot(p);
+            if (left[p] == x) {
+                left[p] = right[x];
+                if (right[x] != 0) parent[right[x]] = p;
+                right[x] = p;
+            } else {
+                right[p] = left[x];
+                if (left[x] != 0) parent[left[x]] = p;
+                left[x] = p;
+            }
+            parent[p] = x;
+            parent[x] = g;
+            if (!parentIsRoot) {
+                if (left[g] == p) left[g] = x;
+                else right[g] = x;
+            }
+            pull(p);
+            pull(x);
+        }
+
+        // Link-cut tree: move x to the root of its splay tree
+        private void splay(int x) {
+            int depth = 0;
+            stack[depth++] = x;
+            for (int y = x; !isRoot(y); y = parent[y]) stack[depth++] = parent[y];
+            while (depth > 0) push(stack[--depth]); // Apply reversals from the top down
+
+            while (!isRoot(x)) {
+                int p = parent[x];
+                if (!isRoot(p)) {
+                    int g = parent[p];
+                    rotate((left[g] == p) == (left[p] == x) ? p : x); // Zig-zig rotates the parent first
+                }
+                rotate(x);
+            }
+        }
+
+        // Link-cut tree: make the path from the tree root to x preferred
+        private void access(int x) {
+            int last = 0;
+            for (int y = x; y != 0; y = parent[y]) {
+                splay(y);
+                right[y] = last;
+                pull(y);
+                last = y;
+            }
+            splay(x);
+        }
+
+        // Link-cut tree: make x the root of its tree
+        private void makeRoot(int x) {
+            access(x);
+            flipped[x] ^= true;
+        }
+
+        // Link-cut tree: root of the tree containing x
+        private int findRoot(int x) {
+            access(x);
+            int y = x;
+            push(y);
+            while (left[y] != 0) {
+                y = left[y];
+                push(y);
+            }
+            splay(y);
+            return y;
+        }
+
+        // Link-cut tree: x and y are in the same tree
+        private boolean connected(int x, int y) {
+            return x == y || findRoot(x) == findRoot(y);
+        }
+
+        // Link-cut tree: add the tree edge x - y, x and y must be in different trees
+        private void link(int x, int y) {
+            makeRoot(x);
+            parent[x] = y;
+        }
+
+        // Link-cut tree: remove the tree edge x - y
+        private void cut(int x, int y) {
+            makeRoot(x);
+            access(y); // y is now the splay root with x as its only left child
+            left[y] = 0;
+            parent[x] = 0;
+            pull(y);
+        }
+
+        // Link-cut tree: highest-value node on the path x..y
+        private int pathMax(int x, int y) {
+            makeRoot(x);
+            access(y);
+            return best[y];
+        }
+    }
+
+    // Records device network changes in batches and gives the spanning forest after each one with divide-and-conquer
+    // over time; each batch is solved once and then compacted away
+    static class MstTimeline {
+        private static final long VIRTUAL = Long.MAX_VALUE - 1; // Weight of the connections from device 1 to every device
+        private static final long ABSENT = Long.MAX_VALUE;      // Weight of a connection that is not added at that time
+
+        private int devices;                                   // Devices so far, 1-indexed
+        private int[] endA = new int[16], endB = new int[16]; // Devices of each connection id
+        private long[] cost = new long[16];
+        private boolean[] present = new boolean[16];           // Connection added and not yet removed
+        private boolean[] inBase = new boolean[16];            // Connection present before the pending batch
+        private int connections;                               // Connection ids handed out so far
+        private int[] freeIds = new int[16];                   // Ids of removed connections, reused after their batch
+        private int freeCount;
+
+        // Pending batch: connection whose weight changes (-1 for a new device), its new weight, devices after it
+        private int[] changeEdge = new int[16];
+        private long[] changeWeight = new long[16];
+        private int[] changeDevices = new int[16];
+        private int changes;  // Changes in the pending batch
+        private int solved;   // Changes answered before the pending batch
+
+        private long[] forestCosts = new long[16]; // Answer of every answered change
+        private int[] componentCounts = new int[16];
+
+        private long[] weight; // Weight of every connection at the time being solved
+        private int[] mark;    // Stamp of the last range that found a connection dynamic
+        private int stamp;
+
+        // Constructor to start with devices 1..n and no connections
+        public MstTimeline(int n) {
+            devices = n;
+        }
+
+        // Method to record a new device, returns its 1-indexed number
+        public int addDevice() {
+            devices++;
+            record(-1, 0);
+            return devices;
+        }
+
+        // Method to record a new connection, returns an id for removeConnection
+        public int addConnection(int device1, int device2, int connectionCost) {
+            if (device1 < 1 || device1 > devices) throw new IllegalArgumentException("unknown device " + device1);
+            if (device2 < 1 || device2 > devices) throw new IllegalArgumentException("unknown device " + device2);
+            int id;
+            if (freeCount > 0) {
+                id = freeIds[--freeCount];
+            } else {
+                if (connections == endA.length) {
+                    int size = connections * 2;
+                    endA = Arrays.copyOf(endA, size);
+                    endB = Arrays.copyOf(endB, size);
+                    cost = Arrays.copyOf(cost, size);
+                    present = Arrays.copyOf(present, size);
+                    inBase = Arrays.copyOf(inBase, size);
+                }
+                id = connections++;
+            }
+            endA[id] = device1;
+            endB[id] = device2;
+            cost[id] = connectionCost;
+            present[id] = true;
+            record(id, connectionCost);
+            return id;
+        }
+
+        // Method to record the removal of a connection added earlier
+        public void removeConnection(int id) {
+            if (id < 0 || id >= connections || !present[id]) throw new IllegalArgumentException("unknown connection " + id);
+            present[id] = false;
+            record(id, ABSENT);
+        }
+
+        // Method to get the number of recorded changes
+        public int changes() {
+            return solved + changes;
+        }
+
+        // Method to get the spanning forest cost right after change t (0-indexed)
+        public long forestCost(int t) {
+            solveIfNeeded(t);
+            return forestCosts[t];
+        }
+
+        // Method to get the number of connected groups of devices right after change t (0-indexed)
+        public int components(int t) {
+            solveIfNeeded(t);
+            return componentCounts[t];
+        }
+
+        // Helper method to append a change to the pending batch
+        private void record(int edge, long newWeight) {
+            if (changes == changeEdge.length) {
+                int size = changes * 2;
+                changeEdge = Arrays.copyOf(changeEdge, size);
+                changeWeight = Arrays.copyOf(changeWeight, size);
+                changeDevices = Arrays.copyOf(changeDevices, size);
+            }
+            changeEdge[changes] = edge;
+            changeWeight[changes] = newWeight;
+            changeDevices[changes] = devices;
+            changes++;
+        }
+
+        // Helper method to answer the pending batch if change t is in it, then compact it away
+        private void solveIfNeeded(int t) {
+            if (t < 0 || t >= solved + changes) throw new IllegalArgumentException("unknown change " + t);
+            if (t < solved) return; // Answered by an earlier batch
+
+            // The batch starts from the connections present before it; connections it adds start absent.
+            // Virtual connection i joins device 1 (node 0) and node i + 1.
+            int virtuals = Math.max(0, devices - 1);
+            weight = new long[connections + virtuals];
+            mark = new int[connections + virtuals];
+            stamp = 0;
+            boolean[] used = new boolean[connections];
+            for (int i = 0; i < changes; i++) {
+                if (changeEdge[i] >= 0) used[changeEdge[i]] = true;
+            }
+            int m = 0;
+            int[] ids = new int[connections + virtuals], us = new int[ids.length], vs = new int[ids.length];
+            for (int e = 0; e < connections; e++) {
+                if (!inBase[e] && !used[e]) continue; // Free id, or removed in an earlier batch
+                weight[e] = inBase[e] ? cost[e] : ABSENT;
+                ids[m] = e;
+                us[m] = endA[e] - 1;
+                vs[m] = endB[e] - 1;
+                m++;
+            }
+            for (int i = 0; i < virtuals; i++) {
+                int e = connections + i;
+                weight[e] = VIRTUAL;
+                ids[m] = e;
+                us[m] = 0;
+                vs[m] = i + 1;
+                m++;
+            }
+            if (solved + changes > forestCosts.length) {
+                int size = Math.max(forestCosts.length * 2, solved + changes);
+                forestCosts = Arrays.copyOf(forestCosts, size);
+                componentCounts = Arrays.copyOf(componentCounts, size);
+            }
+            divide(0, changes - 1, ids, us, vs, m, devices, 0, 0);
+
+            // Compact: the batch becomes the new base, and ids removed in it can be handed out again
+            for (int e = 0; e < connections; e++) {
+                if (!used[e]) continue;
+                inBase[e] = present[e];
+                if (!present[e]) {
+                    if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+                    freeIds[freeCount++] = e;
+                }
+            }
+            solved += changes;
+            changes = 0;
+            weight = null;
+            mark = null;
+        }
+
+        // Helper method to solve changes [l, r] on a graph of m connections (ids, endpoints us/vs) between nodes,
+        // where cost and virtualsUsed already hold what was contracted away
+        private void divide(int l, int r, int[] ids, int[] us, int[] vs, int m, int nodes, long cost, int virtualsUsed) {
+            if (l == r) { // One change: apply it and run Kruskal on the small graph that is left
+                if (changeEdge[l] >= 0) weight[changeEdge[l]] = changeWeight[l];
+                UnionFind uf = new UnionFind(nodes);
+                for (int i : byWeight(ids, m)) {
+                    long w = weight[ids[i]];
+                    if (w == ABSENT) break; // The virtual connections already joined everything
+                    if (!uf.union(us[i], vs[i])) continue;
+                    if (w == VIRTUAL) virtualsUsed++;
+                    else cost += w;
+                }
+                // Every device not added yet uses one virtual connection, the rest are extra groups
+                int added = changeDevices[l];
+                forestCosts[solved + l] = cost;
+                componentCounts[solved + l] = added == 0 ? 0 : 1 + virtualsUsed - (devices - added);
+                return;
+            }
+
+            int s = ++stamp;
+            for (int t = l; t <= r; t++) {
+                if (changeEdge[t] >= 0) mark[changeEdge[t]] = s;
+            }
+            int[] order = byWeight(ids, m);
+
+            // Contraction: static connections still taken with every dynamic one taken first
+            UnionFind withDynamic = new UnionFind(nodes);
+            for (int i = 0; i < m; i++) {
+                if (mark[ids[i]] == s) withDynamic.union(us[i], vs[i]);
+            }
+            UnionFind contracted = new UnionFind(nodes);
+            boolean[] merged = new boolean[m];
+            for (int i : order) {
+                if (mark[ids[i]] == s || !withDynamic.union(us[i], vs[i])) continue;
+                merged[i] = true;
+                contracted.union(us[i], vs[i]);
+                long w = weight[ids[i]];
+                if (w == VIRTUAL) virtualsUsed++;
+                else cost += w;
+            }
+            int[] label = new int[nodes];
+            Arrays.fill(label, -1);
+            int newNodes = 0;
+            for (int x = 0; x < nodes; x++) {
+                int root = contracted.find(x);
+                if (label[root] < 0) label[root] = newNodes++;
+                label[x] = label[root];
+            }
+
+            // Reduction: keep dynamic connections, and static ones still taken with every dynamic one left out
+            UnionFind withoutDynamic = new UnionFind(newNodes);
+            int[] newIds = new int[m], newUs = new int[m], newVs = new int[m];
+            int newM = 0;
+            for (int i : order) {
+                if (merged[i]) continue;
+                int a = label[us[i]], b = label[vs[i]];
+                if (mark[ids[i]] != s && !withoutDynamic.union(a, b)) continue; // Never in the forest in [l, r]
+                newIds[newM] = ids[i];
+                newUs[newM] = a;
+                newVs[newM] = b;
+                newM++;
+            }
+
+            // The left half applies its changes to weight before the right half runs
+            int mid = (l + r) >>> 1;
+            divide(l, mid, newIds, newUs, newVs, newM, newNodes, cost, virtualsUsed);
+            divide(mid + 1, r, newIds, newUs, newVs, newM, newNodes, cost, virtualsUsed);
+        }
+
+        // Helper method for the positions 0..m-1 ordered by the current weight of ids[i], stable bottom-up merge sort
+        private int[] byWeight(int[] ids, int m) {
+            int[] order = new int[m], tmp = new int[m];
+            for (int i = 0; i < m; i++) {
+                order[i] = i;
+            }
+            for (int width = 1; width < m; width *= 2) {
+                for (int lo = 0; lo + width < m; lo += 2 * width) {
+                    int mid = lo + width, hi = Math.min(lo + 2 * width, m);
+                    int i = lo, j = mid, k = lo;
+                    while (i < mid && j < hi) {
+                        tmp[k++] = weight[ids[order[j]]] < weight[ids[order[i]]] ? order[j++] : order[i++];
+                    }
+                    while (i < mid) tmp[k++] = order[i++];
+                    while (j < hi) tmp[k++] = order[j++];
+                    System.arraycopy(tmp, lo, order, lo, hi - lo);
+                }
+            }
+            return order;
+        }
+    }
+
+    // Read-only view of a binary edge file mapped into memory
+    static class MappedEdgeFile implements AutoCloseable {
+        static final int RECORD_BYTES = 12; // device1, device2, cost
+        private static final int RECORDS_PER_SEGMENT = Integer.MAX_VALUE / RECORD_BYTES; // One mapping is limited to 2 GB
+
+        private final FileChannel channel;
+        private final MappedByteBuffer[] segments;
+        private final long size; // Number of records
+
+        // Constructor to map the whole file
+        public MappedEdgeFile(Path file) throws IOException {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            long bytes = channel.size();
+            if (bytes % RECORD_BYTES != 0) {
+                channel.close();
+                throw new IOException("edge file length is not a multiple of " + RECORD_BYTES + " bytes");
+            }
+            size = bytes / RECORD_BYTES;
+            segments = new MappedByteBuffer[(int) ((size + RECORDS_PER_SEGMENT - 1) / RECORDS_PER_SEGMENT)];
+            for (int i = 0; i < segments.length; i++) {
+                long first = (long) i * RECORDS_PER_SEGMENT;
+                long count = Math.min(RECORDS_PER_SEGMENT, size - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, first * RECORD_BYTES, count * RECORD_BYTES);
+            }
+        }
+
+        // Method to get the number of connections in the file
+        public long size() {
+            return size;
+        }
+
+        // Method to read one int field (0 = device1, 1 = device2, 2 = cost) of record i
+        public int field(long i, int field) {
+            MappedByteBuffer segment = segments[(int) (i / RECORDS_PER_SEGMENT)];
+            return segment.getInt((int) (i % RECORDS_PER_SEGMENT) * RECORD_BYTES + field * 4);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close(); // The mappings stay valid until they are garbage collected
+        }
+    }
+
+    // Same total as minTotalCostPrimitive, reading the connections from a mapped edge file
+    public static int minTotalCost(int n, int[] modules, MappedEdgeFile edges) {
+        if (edges.size() > Integer.MAX_VALUE) throw new IllegalArgumentException("too many connections for one key array");
+        int m = (int) edges.size();
+        long[] keys = new long[m]; // (cost << 32) | record index, the only per-connection heap data
+        for (int i = 0; i < m; i++) {
+            keys[i] = ((long) edges.field(i, 2) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        UnionFind uf = new UnionFind(n);
+        int totalCost = 0;
+        int unions = 0;
+        for (int i = 0; i < m && unions < n - 1; i++) {
+            int record = (int) keys[i];
+            if (uf.union(edges.field(record, 0) - 1, edges.field(record, 1) - 1)) { // Convert to 0-indexed
+                totalCost += (int) (keys[i] >> 32);
+                unions++;
+            }
+        }
+        return totalCost + Arrays.stream(modules).min().getAsInt();
+    }
+
+    // Method to write connections in the binary edge file format
+    public static void writeEdgeFile(Path file, int[][] connections) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (int[] connection : connections) {
+                out.writeInt(connection[0]); // DataOutputStream writes big-endian, like ByteBuffer reads
+                out.writeInt(connection[1]);
+                out.writeInt(connection[2]);
+            }
+        }
+    }
+
+    // Method to convert a text file of "device1 device2 cost" lines into the binary edge file format
+    public static long convertTextEdges(Path textFile, Path edgeFile) throws IOException {
+        long records = 0;
+        try (BufferedReader in = Files.newBufferedReader(textFile);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(edgeFile)))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) continue; // Skip blank lines
+                String[] parts = line.split("\\s+");
+                if (parts.length != 3) throw new IOException("expected 3 numbers per line: " + line);
+                out.writeInt(Integer.parseInt(parts[0]));
+                out.writeInt(Integer.parseInt(parts[1]));
+                out.writeInt(Integer.parseInt(parts[2]));
+                records++;
+            }
+        }
+        return records;
+    }
+
+    // Benchmark of the MST modes on random graphs with n devices and a growing number of connections
+    static void benchmark(int n, long seed) {
+        Random random = new Random(seed);
+        int[] modules = new int[n];
+        Arrays.fill(modules, 1);
+        System.out.printf("%-10s %-12s %-12s %-12s%n", "edges", "SORT_ALL", "PRIMITIVE", "FILTER");
+        for (int m = n; m <= 64 * n; m *= 4) {
+            int[][] connections = new int[m][];
+            for (int i = 0; i < m; i++) {
+                connections[i] = new int[]{1 + random.nextInt(n), 1 + random.nextInt(n), random.nextInt(1_000_000)};
+            }
+            long[] millis = new long[3];
+            int expected = 0;
+            for (MstMode mode : MstMode.values()) {
+                long best = Long.MAX_VALUE;
+                for (int run = 0; run < 3; run++) { // Best of three runs to skip warm-up noise
+                    long start = System.nanoTime();
+                    int total = minTotalCost(n, modules, connections, mode);
+                    best = Math.min(best, System.nanoTime() - start);
+                    if (mode == MstMode.SORT_ALL) expected = total;
+                    else if (total != expected) throw new IllegalStateException(mode + " returned a different total");
+                }
+                millis[mode.ordinal()] = best / 1_000_000;
+            }
+            System.out.printf("%-10d %-12d %-12d %-12d%n", m, millis[0], millis[1], millis[2]);
+        }
+    }
+
     // Method to calculate the minimum total cost to connect all devices
     public static int minTotalCost(int n, int[] modules, int[][] connections) {
         List<Edge> edges = new ArrayList<>(); // List to hold all the edges
@@ -124,8 +1073,38 @@ public class Q3_aAns { // Define the main class Q3_aAns
         return totalCost; // Return the total cost
     }
 
+    // Same total as minTotalCost, sorting packed long keys instead of Edge objects
+    public static int minTotalCostPrimitive(int n, int[] modules, int[][] connections) {
+        int m = connections.length;
+        long[] keys = new long[m]; // (cost << 32) | index, sorts by cost first
+        for (int i = 0; i < m; i++) {
+            keys[i] = ((long) connections[i][2] << 32) | i;
+        }
+        Arrays.sort(keys); // Primitive sort, no comparator or boxing
+
+        UnionFind uf = new UnionFind(n); // Initialize UnionFind for n devices
+        int totalCost = 0;
+        int unions = 0;
+        for (int i = 0; i < m && unions < n - 1; i++) {
+            int[] connection = connections[(int) keys[i]]; // Low 32 bits hold the connection index
+            if (uf.union(connection[0] - 1, connection[1] - 1)) { // Convert to 0-indexed
+                totalCost += connection[2];
+                unions++; // The tree is complete after n - 1 unions
+            }
+        }
+
+        // Add the cost of the cheapest module to the total cost
+        int modulesCost = Arrays.stream(modules).min().getAsInt();
+        return totalCost + modulesCost;
+    }
+
     // Main method to run the program
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--bench")) {
+            benchmark(200_000, 42); // Times in milliseconds per mode, totals are checked against SORT_ALL
+            return;
+        }
+
         int n = 3; // Number of devices
         int[] modules = {1, 2, 2}; // Cost of modules for each device
         int[][] connections = {{1, 2, 1}, {2, 3, 1}}; // List of connections (device1, device2, cost)
@@ -135,8 +1114,84 @@ public class Q3_aAns { // Define the main class Q3_aAns
         
         // Print the result
         System.out.println("Minimum total cost to connect all devices: " + result); // Expected output: 4
+
+        // Same input with the allocation-light variant
+        int primitiveResult = minTotalCostPrimitive(n, modules, connections);
+        System.out.println("Minimum total cost (primitive keys): " + primitiveResult);
+
+        // Same input with Filter-Kruskal
+        int filterResult = minTotalCost(n, modules, connections, MstMode.FILTER_KRUSKAL);
+        System.out.println("Minimum total cost (filter-Kruskal): " + filterResult);
+
+        // Four workers ingest connections into one concurrent Union-Find at the same time
+        int devices = 100_000;
+        ConcurrentUnionFind shared = new ConcurrentUnionFind(devices);
+        Thread[] workers = new Thread[4];
+        for (int w = 0; w < workers.length; w++) {
+            int offset = w;
+            workers[w] = new Thread(() -> {
+                for (int i = offset; i + 1 < devices; i += workers.length) {
+                    shared.union(i, i + 1); // Together the workers connect the whole chain
+                }
+            });
+            workers[w].start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        System.out.println("Connected components after ingestion: " + shared.components()); // Expected output: 1
+
+        // Keep the spanning forest up to date while connections change
+        DynamicMst network = new DynamicMst(n);
+        for (int[] connection : connections) {
+            network.addConnection(connection[0], connection[1], connection[2]);
+        }
+        int shortcut = network.addConnection(1, 3, 5); // More expensive than the current path, left out
+        int direct = network.addConnection(1, 3, 0);   // Cheaper, replaces one of the cost 1 connections
+        System.out.println("Forest cost after adding connections: " + network.forestCost()); // Expected output: 1
+        network.removeConnection(direct);
+        System.out.println("Forest cost after removing a connection: " + network.forestCost()); // Expected output: 2
+        network.removeConnection(shortcut);
+
+        // Same changes recorded up front and answered offline
+        MstTimeline timeline = new MstTimeline(n);
+        for (int[] connection : connections) {
+            timeline.addConnection(connection[0], connection[1], connection[2]);
+        }
+        int plannedShortcut = timeline.addConnection(1, 3, 5);
+        int plannedDirect = timeline.addConnection(1, 3, 0);
+        timeline.removeConnection(plannedDirect);
+        timeline.removeConnection(plannedShortcut);
+        StringBuilder costs = new StringBuilder();
+        for (int t = 0; t < timeline.changes(); t++) {
+            costs.append(t == 0 ? "" : " ").append(timeline.forestCost(t));
+        }
+        System.out.println("Forest cost after each recorded change: " + costs); // Expected output: 1 2 2 1 2 2
+
+        // Same connections read from a memory-mapped edge file
+        try {
+            Path edgeFile = Files.createTempFile("connections", ".edges");
+            writeEdgeFile(edgeFile, connections);
+            try (MappedEdgeFile edges = new MappedEdgeFile(edgeFile)) {
+                System.out.println("Minimum total cost (mapped file): " + minTotalCost(n, modules, edges));
+            }
+            Files.deleteIfExists(edgeFile);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 }
 
 // output
-// Minimum total cost to connect all devices: 3
\ No newline at end of file
+// Minimum total cost to connect all devices: 3
+// Minimum total cost (primitive keys): 3
+// Minimum total cost (filter-Kruskal): 3
+// Connected components after ingestion: 1
+// Forest cost after adding connections: 1
+// Forest cost after removing a connection: 2
+// Forest cost after each recorded change: 1 2 2 1 2 2
+// Minimum total cost (mapped file): 3
\ No newline at end of file
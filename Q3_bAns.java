@@ -3,17 +3,17 @@ Problem: Implement a Tetris game where blocks fall from the top, and the player
 
 Approach:
 
-Use a 2D array to represent the game board.
+Represent the game board as one bit mask per row (a bitboard), with a color per cell for drawing.
 
 Blocks are represented by shapes and colors.
 
 The player can move blocks left, right, down, and rotate them.
 
-The game ends when a block cannot move down after spawning.
+The game ends when a new block does not fit, or cannot move down, where it spawns.
 
 Key Components:
 
-Game Board: A 2D array (board) to track occupied cells.
+Game Board: One long per row tracks occupied cells, and a byte per cell keeps its color.
 
 Blocks: Defined by shapes and colors, with methods to move and rotate.
 
@@ -32,294 +32,935 @@ The player moves and rotates blocks to fit them into the board.
 Completed rows are cleared, and the game continues until a block cannot spawn.
 
 Complexity:
-Time: O(1) for block movement and rotation, O(n) for row completion checks.
+Time: O(1) for block movement and rotation (one AND per block row), O(h) for clearing rows, where h is the board height.
 
-Space: O(n²) for the game board.
+Space: O(w * h) for the cell colors and O(h) longs for the row masks, where w is the board width.
+
+Bitboard Core (TetrisCore):
+
+The game rules run in TetrisCore, which has no Swing or AWT code.
+
+Every board row is one long with bit c set when column c is filled, so boards up to 64 columns wide are supported.
+
+All four rotations of every shape are precomputed once as row masks. A collision test is one AND per piece row,
+and a row is full when it equals the full-row mask. Moving, rotating and clearing rows allocate nothing.
+
+After a placement only the rows under the block are checked. All full rows are removed in one bottom-up pass that
+moves each kept row once, and the cleared rows' cell buffers are reused for the new empty rows at the top.
+
+A rotation is only accepted when the rotated block fits where it is.
+
+The Swing panel only forwards key presses and timer ticks to the core and paints the core's cells.
+
+Headless Simulation (TetrisSimulation):
+
+TetrisSimulation drives a TetrisCore without Swing: reset(seed) starts a new game, step(action) applies one action
+followed by one gravity tick, and the board rows and falling block can be read back as observations.
+
+Its main method plays many independent games in parallel and prints games per second and pieces per second.
+It only uses TetrisCore and java.util classes, so no AWT class is loaded. The helper classes are nested in
+Q3_bAns but do not use lambdas or private members of the panel, so running them never loads the panel class:
+
+    java 'Q3_bAns$TetrisSimulation' [games] [maxPieces]
+
+Piece Supply (PieceSupply):
+
+All blocks come from one PieceSupply with a single seeded Random, so a game replays exactly from its seed.
+
+The Swing game takes its seed from the first program argument or -Dtetris.seed, otherwise a random one, and prints
+it at start. The same seed gives the same blocks in `java Q3_bAns <seed>` and in new TetrisSimulation(10, 20, seed).
+
+It keeps a ring buffer of the next N blocks for lookahead. Each block is one int (shape and color), so spawning allocates nothing.
+
+The shape order comes from a pluggable Randomizer: uniform draws, or a bag that deals every shape once in a
+shuffled order before refilling (the 7-bag rule, with this game's 5 shapes).
+
+Placement-Search Player (TetrisAI):
+
+For the falling block, try every distinct rotation and every column, drop it straight down and score the board:
+
+score = -0.51 * aggregate height + 0.76 * lines cleared - 0.36 * holes - 0.18 * bumpiness.
+
+With lookahead, each placement is scored by the best placement of the next one or two blocks from the PieceSupply queue.
+
+The first-level candidates are scored in parallel on a ForkJoinPool. Every worker reuses its own scratch rows
+(one long[] per search level), so no board is allocated per candidate. Each candidate gets a score without
+lookahead first. If the per-block time budget runs out before every candidate finishes its lookahead search,
+all candidates are compared by the scores without lookahead, so scores of different depths are never mixed.
+
+    java 'Q3_bAns$TetrisAI' [games] [lookahead] [budgetMillis]
+
+Dirty-Region Rendering:
+
+TetrisCore records the range of board rows changed since the panel last drew them. The panel keeps the settled
+cells in an offscreen BufferedImage, redraws only those rows into it, and repaints only the changed rows plus the
+old and new bounds of the falling block. The font and colors are created once.
+
+Run with -Dtetris.frameStats=true to print the average paint time every 100 frames.
  */
 import java.awt.*;
 import java.awt.event.*;
-import java.util.LinkedList;
-import java.util.Queue;
+import java.awt.image.BufferedImage;
 import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 import javax.swing.*;
 
 public class Q3_bAns extends JPanel implements ActionListener {
-    // Constants for the game board dimensions, block size, and colors
-    private static final int BOARD_WIDTH = 10; // Width of the game board in blocks
-    private static final int BOARD_HEIGHT = 20; // Height of the game board in blocks
-    private static final int BLOCK_SIZE = 30; // Size of each block in pixels
-    private static final Color[] COLORS = { Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW, Color.ORANGE }; // Colors for the blocks
+    // Class that deals blocks from one seeded random generator, with a lookahead queue
+    static class PieceSupply {
+        // Strategy that picks the shape of the next block
+        interface Randomizer {
+            int nextShape(Random random); // Shape index in [0, TetrisCore.SHAPE_COUNT)
 
-    private Timer timer; // Timer to control the game speed
-    private boolean isGameOver; // Flag to check if the game is over
-    private int[][] board; // 2D array representing the game board
-    private Block currentBlock; // The current block that is falling
-    private Queue<Block> blockQueue; // Queue to hold the next blocks
+            void reset(); // Forget any state, called when the supply is reseeded
+        }
 
-    // Constructor to initialize the game
-    public Q3_bAns() {
-        setPreferredSize(new Dimension(BOARD_WIDTH * BLOCK_SIZE, BOARD_HEIGHT * BLOCK_SIZE)); // Set the size of the game panel
-        setBackground(Color.BLACK); // Set the background color to black
-        setFocusable(true); // Allow the panel to receive key events
-        addKeyListener(new KeyAdapter() { // Add a key listener to handle key presses
-            @Override
-            public void keyPressed(KeyEvent e) {
-                if (!isGameOver) { // Only handle key presses if the game is not over
-                    switch (e.getKeyCode()) {
-                        case KeyEvent.VK_LEFT:
-                            moveBlockLeft(); // Move the block left
-                            break;
-                        case KeyEvent.VK_RIGHT:
-                            moveBlockRight(); // Move the block right
-                            break;
-                        case KeyEvent.VK_DOWN:
-                            moveBlockDown(); // Move the block down
-                            break;
-                        case KeyEvent.VK_UP:
-                            rotateBlock(); // Rotate the block
-                            break;
+        // Randomizer that draws every shape with equal probability
+        static Randomizer uniform() {
+            return new Randomizer() {
+                @Override
+                public int nextShape(Random random) {
+                    return random.nextInt(TetrisCore.SHAPE_COUNT);
+                }
+
+                @Override
+                public void reset() {
+                }
+            };
+        }
+
+        // Randomizer that deals every shape once per shuffled bag
+        static Randomizer bag() {
+            return new Randomizer() {
+                private final int[] bag = new int[TetrisCore.SHAPE_COUNT];
+                private int remaining; // Shapes left in the current bag
+
+                @Override
+                public int nextShape(Random random) {
+                    if (remaining == 0) {
+                        for (int i = 0; i < bag.length; i++) bag[i] = i;
+                        for (int i = bag.length - 1; i > 0; i--) { // Fisher-Yates shuffle
+                            int j = random.nextInt(i + 1);
+                            int tmp = bag[i];
+                            bag[i] = bag[j];
+                            bag[j] = tmp;
+                        }
+                        remaining = bag.length;
                     }
-                    repaint(); // Redraw the game panel
+                    return bag[--remaining];
                 }
-            }
-        });
-        board = new int[BOARD_HEIGHT][BOARD_WIDTH]; // Initialize the game board
-        blockQueue = new LinkedList<>(); // Initialize the block queue
-        timer = new Timer(500, this); // Initialize the timer with a delay of 500ms
-        timer.start(); // Start the timer
-        generateNewBlock(); // Generate the first block
-    }
 
-    // Method to generate a new block
-    private void generateNewBlock() {
-        Random random = new Random(); // Create a random number generator
-        int shapeIndex = random.nextInt(COLORS.length); // Randomly select a color index
-        int[][] shape = getRandomShape(); // Get a random shape for the block
-        Block block = new Block(shape, COLORS[shapeIndex]); // Create a new block with the selected shape and color
-        blockQueue.add(block); // Add the block to the queue
-        currentBlock = blockQueue.poll(); // Set the current block to the first block in the queue
+                @Override
+                public void reset() {
+                    remaining = 0;
+                }
+            };
+        }
+
+        private final Random random; // The only random generator of the game
+        private final Randomizer randomizer;
+        private final int[] queue; // Ring buffer of upcoming blocks, each encoded as shape * COLOR_COUNT + color
+        private int head;          // Position of the next block in the ring buffer
+
+        // Constructor to create a supply with the given seed, lookahead size and randomizer
+        PieceSupply(long seed, int lookahead, Randomizer randomizer) {
+            if (lookahead < 1) throw new IllegalArgumentException("lookahead must be at least 1");
+            this.random = new Random(seed);
+            this.randomizer = randomizer;
+            this.queue = new int[lookahead];
+            fill();
+        }
+
+        // Method to restart the sequence from a new seed
+        void reset(long seed) {
+            random.setSeed(seed);
+            randomizer.reset();
+            head = 0;
+            fill();
+        }
+
+        // Method to take the next block and draw a new one at the end of the queue
+        int next() {
+            int piece = queue[head];
+            queue[head] = draw(); // The freed slot becomes the last upcoming block
+            head = (head + 1) % queue.length;
+            return piece;
+        }
+
+        // Method to look at the i-th upcoming block without taking it (0 is the next one)
+        int peek(int i) {
+            return queue[(head + i) % queue.length];
+        }
+
+        // Method to get the number of upcoming blocks that can be looked at
+        int lookahead() {
+            return queue.length;
+        }
+
+        static int shapeOf(int piece) { return piece / TetrisCore.COLOR_COUNT; } // Shape of an encoded block
+        static int colorOf(int piece) { return piece % TetrisCore.COLOR_COUNT; } // Color of an encoded block
+
+        // Helper method to fill the whole queue
+        private void fill() {
+            for (int i = 0; i < queue.length; i++) queue[i] = draw();
+        }
+
+        // Helper method to draw one block: color first, then shape, like the original game
+        private int draw() {
+            int color = random.nextInt(TetrisCore.COLOR_COUNT);
+            int shape = randomizer.nextShape(random);
+            return shape * TetrisCore.COLOR_COUNT + color;
+        }
     }
 
-    // Method to get a random shape for the block
-    private int[][] getRandomShape() {
-        int[][][] shapes = {
+    // Class that holds the Tetris rules on a bitboard, independent of any user interface
+    static class TetrisCore {
+        // Block shapes, in the same order as the original game
+        private static final int[][][] SHAPES = {
                 {{1, 1, 1, 1}},          // I-shape
                 {{1, 1, 0}, {0, 1, 1}},  // Z-shape
                 {{0, 1, 1}, {1, 1, 0}},  // S-shape
                 {{1, 1, 1}, {0, 1, 0}},  // T-shape
                 {{1, 1}, {1, 1}}         // O-shape
         };
-        Random random = new Random(); // Create a random number generator
-        return shapes[random.nextInt(shapes.length)]; // Return a random shape
-    }
+        static final int SHAPE_COUNT = SHAPES.length; // Number of different shapes
+        static final int COLOR_COUNT = 5;             // Number of different block colors
+        static final int ROTATIONS = 4;               // Rotations per shape, 90 degrees clockwise each
+
+        // MASKS[shape][rotation][row] has bit c set when column c of that row of the block is filled
+        static final long[][][] MASKS = new long[SHAPE_COUNT][ROTATIONS][];
+        static final int[][] WIDTHS = new int[SHAPE_COUNT][ROTATIONS];  // Columns of each rotation
+        static final int[][] HEIGHTS = new int[SHAPE_COUNT][ROTATIONS]; // Rows of each rotation
+
+        static {
+            for (int s = 0; s < SHAPE_COUNT; s++) {
+                int[][] shape = SHAPES[s];
+                for (int r = 0; r < ROTATIONS; r++) {
+                    int rows = shape.length, cols = shape[0].length;
+                    long[] masks = new long[rows];
+                    for (int i = 0; i < rows; i++) {
+                        for (int j = 0; j < cols; j++) {
+                            if (shape[i][j] != 0) masks[i] |= 1L << j;
+                        }
+                    }
+                    MASKS[s][r] = masks;
+                    WIDTHS[s][r] = cols;
+                    HEIGHTS[s][r] = rows;
+
+                    // Rotate 90 degrees clockwise for the next rotation, only done while building the tables
+                    int[][] rotated = new int[cols][rows];
+                    for (int i = 0; i < rows; i++) {
+                        for (int j = 0; j < cols; j++) {
+                            rotated[j][rows - i - 1] = shape[i][j];
+                        }
+                    }
+                    shape = rotated;
+                }
+            }
+        }
 
-    // Method called by the timer to update the game state
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        if (!isGameOver) { // Only update the game if it is not over
-            if (canMoveDown(currentBlock)) { // Check if the current block can move down
-                currentBlock.row++; // Move the block down
-            } else {
-                placeBlock(currentBlock); // Place the block on the board
-                checkCompletedRows(); // Check if any rows are completed
-                generateNewBlock(); // Generate a new block
-                if (!canMoveDown(currentBlock)) { // Check if the new block can move down
-                    isGameOver = true; // If not, the game is over
+        final int width;  // Board width in cells, at most 64
+        final int height; // Board height in cells
+        private final long fullRow;  // Mask of a completely filled row
+        private final long[] rows;   // One bitmask per board row, row 0 is the top
+        private final byte[][] cells; // Color index + 1 of every settled cell, 0 when empty
+        private final byte[][] spareRows = new byte[4][]; // Cell buffers of cleared rows, a block covers at most 4 rows
+
+        private final PieceSupply supply; // Source of new blocks
+        private int shape, rotation, pieceRow, pieceCol, color; // The falling block
+        private boolean gameOver;  // Flag to check if the game is over
+        private long linesCleared; // Total number of cleared rows
+        private int dirtyTop, dirtyBottom; // Rows changed since clearDirty, empty when dirtyTop > dirtyBottom
+
+        // Constructor to create an empty board and spawn the first block
+        TetrisCore(int width, int height, PieceSupply supply) {
+            if (width < 1 || width > 64 || height < 1) {
+                throw new IllegalArgumentException("board must be 1..64 columns wide and at least 1 row tall");
+            }
+            this.width = width;
+            this.height = height;
+            this.fullRow = width == 64 ? -1L : (1L << width) - 1;
+            this.rows = new long[height];
+            this.cells = new byte[height][width];
+            this.supply = supply;
+            markDirty(0, height - 1); // Nothing has been drawn yet
+            spawn();
+        }
+
+        // Method to check if a block with the given shape and rotation fits at (row, col)
+        boolean fits(int shape, int rotation, int row, int col) {
+            return fits(rows, width, shape, rotation, row, col);
+        }
+
+        // Method to check if a block fits at (row, col) on any board given as row masks
+        static boolean fits(long[] rows, int width, int shape, int rotation, int row, int col) {
+            long[] masks = MASKS[shape][rotation];
+            if (col < 0 || col + WIDTHS[shape][rotation] > width || row + masks.length > rows.length) {
+                return false; // Out of bounds (rows above the top are allowed, like the original game)
+            }
+            for (int i = 0; i < masks.length; i++) {
+                int r = row + i;
+                if (r >= 0 && (rows[r] & (masks[i] << col)) != 0) return false; // Overlaps a settled cell
+            }
+            return true;
+        }
+
+        // Method to check if the falling block can move down
+        boolean canMoveDown() {
+            return fits(shape, rotation, pieceRow + 1, pieceCol);
+        }
+
+        // Method to move the falling block left if possible
+        boolean moveLeft() {
+            if (gameOver || !fits(shape, rotation, pieceRow, pieceCol - 1)) return false;
+            pieceCol--;
+            return true;
+        }
+
+        // Method to move the falling block right if possible
+        boolean moveRight() {
+            if (gameOver || !fits(shape, rotation, pieceRow, pieceCol + 1)) return false;
+            pieceCol++;
+            return true;
+        }
+
+        // Method to move the falling block down if possible
+        boolean moveDown() {
+            if (gameOver || !canMoveDown()) return false;
+            pieceRow++;
+            return true;
+        }
+
+        // Method to rotate the falling block clockwise if the rotated block fits
+        boolean rotate() {
+            int next = (rotation + 1) % ROTATIONS;
+            if (gameOver || !fits(shape, next, pieceRow, pieceCol)) return false;
+            rotation = next;
+            return true;
+        }
+
+        // Method called once per timer tick: move down, or settle the block and spawn the next one.
+        // Returns true when the block was settled.
+        boolean tick() {
+            if (gameOver) return false;
+            if (canMoveDown()) {
+                pieceRow++; // Move the block down
+                return false;
+            }
+            placeBlock(); // Place the block on the board
+            clearFullRows(); // Clear any completed rows
+            spawn(); // Generate a new block
+            if (!canMoveDown()) gameOver = true; // If the new block cannot move down, the game is over
+            return true;
+        }
+
+        // Helper method to spawn the next block from the supply at the top center
+        private void spawn() {
+            int piece = supply.next();
+            color = PieceSupply.colorOf(piece);
+            shape = PieceSupply.shapeOf(piece);
+            rotation = 0;
+            pieceRow = 0;
+            pieceCol = width / 2 - WIDTHS[shape][0] / 2;
+            // A block that does not fit where it spawns (or is larger than a small board) ends the game,
+            // so placeBlock never writes outside the board
+            if (!fits(shape, rotation, pieceRow, pieceCol)) gameOver = true;
+        }
+
+        // Helper method to copy the falling block into the board
+        private void placeBlock() {
+            long[] masks = MASKS[shape][rotation];
+            for (int i = 0; i < masks.length; i++) {
+                int r = pieceRow + i;
+                if (r < 0) continue; // Cells above the top are lost
+                markDirty(r, r);
+                rows[r] |= masks[i] << pieceCol;
+                for (long bits = masks[i]; bits != 0; bits &= bits - 1) {
+                    cells[r][pieceCol + Long.numberOfTrailingZeros(bits)] = (byte) (color + 1);
                 }
             }
-            repaint(); // Redraw the game panel
+        }
+
+        // Helper method to clear full rows after a placement, moving the rows above down in one pass.
+        // Only the rows covered by the placed block can have become full.
+        private void clearFullRows() {
+            int top = Math.max(pieceRow, 0);
+            int bottom = Math.min(pieceRow + HEIGHTS[shape][rotation], height) - 1;
+            int lowestFull = -1;
+            for (int row = top; row <= bottom; row++) {
+                if (rows[row] == fullRow) lowestFull = row;
+            }
+            if (lowestFull < 0) return; // No row was completed
+
+            // Compact from the lowest full row upwards: kept rows move down, full rows give their cell buffers back
+            int spareCount = 0;
+            int write = lowestFull;
+            for (int read = lowestFull; read >= 0; read--) {
+                if (rows[read] == fullRow) {
+                    spareRows[spareCount++] = cells[read]; // Recycle the cleared row's cell buffer
+                } else {
+                    rows[write] = rows[read];
+                    cells[write] = cells[read];
+                    write--;
+                }
+            }
+
+            // The top rows are now empty, filled with the recycled buffers
+            for (int row = write; row >= 0; row--) {
+                byte[] buffer = spareRows[--spareCount];
+                java.util.Arrays.fill(buffer, (byte) 0);
+                rows[row] = 0;
+                cells[row] = buffer;
+            }
+            markDirty(0, lowestFull); // Every row down to the lowest cleared one has moved
+            linesCleared += write + 1; // One empty row entered at the top per cleared row
+        }
+
+        // Method to start a new game on an empty board with the piece supply reseeded
+        void reset(long seed) {
+            supply.reset(seed);
+            java.util.Arrays.fill(rows, 0L);
+            for (byte[] row : cells) java.util.Arrays.fill(row, (byte) 0);
+            gameOver = false;
+            linesCleared = 0;
+            markDirty(0, height - 1);
+            spawn();
+        }
+
+        // Helper method to add rows top..bottom to the changed range
+        private void markDirty(int top, int bottom) {
+            if (dirtyTop > dirtyBottom) {
+                dirtyTop = top;
+                dirtyBottom = bottom;
+            } else {
+                dirtyTop = Math.min(dirtyTop, top);
+                dirtyBottom = Math.max(dirtyBottom, bottom);
+            }
+        }
+
+        int dirtyTop() { return dirtyTop; }       // First changed row
+        int dirtyBottom() { return dirtyBottom; } // Last changed row, below dirtyTop when nothing changed
+
+        // Method to mark all rows as drawn
+        void clearDirty() {
+            dirtyTop = 0;
+            dirtyBottom = -1;
+        }
+
+        // Method to get the settled cell at (row, col): 0 when empty, otherwise color index + 1
+        int cell(int row, int col) {
+            return cells[row][col];
+        }
+
+        // Method to get the bitmask of a board row
+        long rowMask(int row) {
+            return rows[row];
+        }
+
+        int shape() { return shape; }           // Shape index of the falling block
+        int rotation() { return rotation; }     // Rotation of the falling block
+        int pieceRow() { return pieceRow; }     // Top row of the falling block
+        int pieceCol() { return pieceCol; }     // Left column of the falling block
+        int color() { return color; }           // Color index of the falling block
+        boolean isGameOver() { return gameOver; }
+        long linesCleared() { return linesCleared; }
+        PieceSupply supply() { return supply; } // Upcoming blocks
+    }
+
+    // Class that runs Tetris games without any user interface, for self-play and benchmarks
+    static class TetrisSimulation {
+        static final int NONE = 0, LEFT = 1, RIGHT = 2, ROTATE = 3, DOWN = 4, HARD_DROP = 5; // Actions for step
+        static final int ACTION_COUNT = 6;
+
+        private final TetrisCore core;
+        private long pieces; // Blocks settled since the last reset
+
+        // Constructor to create a game on a board of the given size with uniform blocks
+        TetrisSimulation(int width, int height, long seed) {
+            this(width, height, new PieceSupply(seed, 3, PieceSupply.uniform()));
+        }
+
+        // Constructor to create a game that takes its blocks from the given supply
+        TetrisSimulation(int width, int height, PieceSupply supply) {
+            core = new TetrisCore(width, height, supply);
+        }
+
+        // Method to start a new game with the given seed
+        void reset(long seed) {
+            core.reset(seed);
+            pieces = 0;
+        }
+
+        // Method to apply one action followed by one gravity tick, returns the rows cleared by this step
+        int step(int action) {
+            if (core.isGameOver()) return 0;
+            long linesBefore = core.linesCleared();
+            switch (action) {
+                case LEFT:
+                    core.moveLeft();
+                    break;
+                case RIGHT:
+                    core.moveRight();
+                    break;
+                case ROTATE:
+                    core.rotate();
+                    break;
+                case DOWN:
+                    core.moveDown();
+                    break;
+                case HARD_DROP:
+                    while (core.moveDown()) {
+                        // Keep falling until the block rests
+                    }
+                    break;
+                default:
+                    break; // NONE, only gravity
+            }
+            if (core.tick()) pieces++; // Gravity, may settle the block
+            return (int) (core.linesCleared() - linesBefore);
+        }
+
+        // Method to copy the board rows into out (bit c of out[r] is column c of row r)
+        void observeBoard(long[] out) {
+            for (int r = 0; r < core.height; r++) {
+                out[r] = core.rowMask(r);
+            }
+        }
+
+        int shape() { return core.shape(); }         // Shape of the falling block
+        int rotation() { return core.rotation(); }   // Rotation of the falling block
+        int pieceRow() { return core.pieceRow(); }   // Top row of the falling block
+        int pieceCol() { return core.pieceCol(); }   // Left column of the falling block
+        boolean isGameOver() { return core.isGameOver(); }
+        long pieces() { return pieces; }
+        long linesCleared() { return core.linesCleared(); }
+        TetrisCore core() { return core; }
+
+        // Method to play games in parallel with a random policy; returns {games, pieces, lines}
+        static long[] runBatch(int games, int maxPieces, long seed) {
+            LongAdder pieces = new LongAdder();
+            LongAdder lines = new LongAdder();
+            // An anonymous class instead of a lambda: a lambda's hidden class joins the nest of Q3_bAns,
+            // and resolving that nest would load the JPanel outer class
+            IntStream.range(0, games).parallel().forEach(new IntConsumer() {
+                @Override
+                public void accept(int g) {
+                    SplittableRandom policy = new SplittableRandom(seed + g); // Independent action stream per game
+                    TetrisSimulation game = new TetrisSimulation(10, 20, seed + g);
+                    while (!game.isGameOver() && game.pieces() < maxPieces) {
+                        game.step(policy.nextInt(ACTION_COUNT));
+                    }
+                    pieces.add(game.pieces());
+                    lines.add(game.linesCleared());
+                }
+            });
+            return new long[]{games, pieces.sum(), lines.sum()};
+        }
+
+        // Main method to benchmark headless self-play
+        public static void main(String[] args) {
+            int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000; // Number of games to play
+            int maxPieces = args.length > 1 ? Integer.parseInt(args[1]) : 1_000; // Cap on blocks per game
+
+            runBatch(Math.min(games, 1_000), maxPieces, 0); // Warm up the JIT
+            long start = System.nanoTime();
+            long[] result = runBatch(games, maxPieces, 1);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("Games: %d, pieces: %d, lines: %d, time: %.3f s%n", result[0], result[1], result[2], seconds);
+            System.out.printf("Games per second: %.0f%n", result[0] / seconds);
+            System.out.printf("Pieces per second: %.0f%n", result[1] / seconds);
         }
     }
 
-    // Method to check if the current block can move down
-    private boolean canMoveDown(Block block) {
-        for (int row = 0; row < block.shape.length; row++) {
-            for (int col = 0; col < block.shape[row].length; col++) {
-                if (block.shape[row][col] != 0) { // Check if the current cell in the block is occupied
-                    int newRow = block.row + row + 1; // Calculate the new row position
-                    int newCol = block.col + col; // Calculate the new column position
-                    if (newRow >= BOARD_HEIGHT || (newRow >= 0 && board[newRow][newCol] != 0)) { // Check if the new position is out of bounds or occupied
-                        return false; // The block cannot move down
+    // Class for an automatic player that searches all placements of the falling block
+    static class TetrisAI {
+        private static final double HEIGHT_WEIGHT = -0.510066;
+        private static final double LINES_WEIGHT = 0.760666;
+        private static final double HOLES_WEIGHT = -0.35663;
+        private static final double BUMPINESS_WEIGHT = -0.184483;
+        private static final double NO_PLACEMENT = -1e18; // Score when a block cannot be placed at all
+        private static final double TIMED_OUT = Double.NaN; // Score of a search stopped by the deadline
+
+        // Per-worker column heights. Anonymous classes instead of lambdas keep Q3_bAns (and AWT) unloaded.
+        private static final ThreadLocal<int[]> COLUMN_HEIGHTS = new ThreadLocal<int[]>() {
+            @Override
+            protected int[] initialValue() {
+                return new int[64];
+            }
+        };
+
+        // Number of different rotations of each shape, the rest repeat an earlier one
+        private static final int[] DISTINCT_ROTATIONS = new int[TetrisCore.SHAPE_COUNT];
+
+        static {
+            for (int s = 0; s < TetrisCore.SHAPE_COUNT; s++) {
+                int distinct = TetrisCore.ROTATIONS;
+                for (int r = 1; r < TetrisCore.ROTATIONS; r++) {
+                    if (java.util.Arrays.equals(TetrisCore.MASKS[s][r], TetrisCore.MASKS[s][0])) {
+                        distinct = r; // Rotation r is the starting shape again
+                        break;
                     }
                 }
+                DISTINCT_ROTATIONS[s] = distinct;
             }
         }
-        return true; // The block can move down
-    }
 
-    // Method to place the current block on the board
-    private void placeBlock(Block block) {
-        for (int row = 0; row < block.shape.length; row++) {
-            for (int col = 0; col < block.shape[row].length; col++) {
-                if (block.shape[row][col] != 0) { // Check if the current cell in the block is occupied
-                    board[block.row + row][block.col + col] = block.colorIndex + 1; // Place the block on the board
+        private final int lookahead;     // Upcoming blocks searched after the falling one (0, 1 or 2)
+        private final long budgetNanos;  // Time allowed per block
+        private final ForkJoinPool pool; // Pool for the first-level candidates
+        private final ThreadLocal<long[][]> scratch; // Per-worker boards, one per search level
+        private final double[] scores = new double[TetrisCore.ROTATIONS * 64];        // Score of each candidate with lookahead
+        private final double[] shallowScores = new double[TetrisCore.ROTATIONS * 64]; // Score of each candidate alone
+        private final int[] candidates = new int[TetrisCore.ROTATIONS * 64];   // rotation * 64 + column
+        private final int height;
+
+        // Constructor for a player on boards of the given height
+        TetrisAI(int height, int lookahead, long budgetNanos, ForkJoinPool pool) {
+            if (lookahead < 0 || lookahead > 2) throw new IllegalArgumentException("lookahead must be 0, 1 or 2");
+            this.height = height;
+            this.lookahead = lookahead;
+            this.budgetNanos = budgetNanos;
+            this.pool = pool;
+            this.scratch = new ThreadLocal<long[][]>() {
+                @Override
+                protected long[][] initialValue() {
+                    return new long[lookahead + 2][height];
+                }
+            };
+        }
+
+        // Method to choose a placement for the falling block, returns rotation * 64 + column or -1 if none fits
+        int chooseMove(TetrisCore core) {
+            if (lookahead > core.supply().lookahead()) throw new IllegalStateException("supply lookahead too short");
+            long deadline = System.nanoTime() + budgetNanos;
+            int shape = core.shape();
+            int count = 0;
+            for (int r = 0; r < DISTINCT_ROTATIONS[shape]; r++) {
+                for (int c = 0; c + TetrisCore.WIDTHS[shape][r] <= core.width; c++) {
+                    candidates[count++] = r * 64 + c;
                 }
             }
+
+            // Score the first-level candidates in parallel, each worker on its own scratch rows
+            if (count > 0) pool.invoke(new ScoreTask(this, core, deadline, 0, count));
+
+            // Compare lookahead scores only if every candidate finished its search, otherwise all shallow scores
+            double[] compared = scores;
+            for (int i = 0; i < count; i++) {
+                if (Double.isNaN(scores[i])) compared = shallowScores;
+            }
+            int best = -1;
+            for (int i = 0; i < count; i++) {
+                if (compared[i] > NO_PLACEMENT && (best < 0 || compared[i] > compared[best])) best = i; // Ties keep the first
+            }
+            return best < 0 ? -1 : candidates[best];
         }
-    }
 
-    // Method to check if any rows are completed and clear them
-    private void checkCompletedRows() {
-        for (int row = 0; row < BOARD_HEIGHT; row++) {
-            boolean isComplete = true; // Assume the row is complete
-            for (int col = 0; col < BOARD_WIDTH; col++) {
-                if (board[row][col] == 0) { // Check if any cell in the row is empty
-                    isComplete = false; // The row is not complete
-                    break;
+        // Method to score first-level candidate i on the calling worker's scratch rows
+        void scoreCandidate(TetrisCore core, int i, long deadline) {
+            long[][] boards = scratch.get();
+            for (int r = 0; r < height; r++) boards[0][r] = core.rowMask(r);
+            int shape = core.shape(), move = candidates[i];
+            shallowScores[i] = place(core, boards, 0, 0, shape, move / 64, move % 64, core.pieceRow(), 0, Long.MAX_VALUE);
+            scores[i] = lookahead == 0 || shallowScores[i] == NO_PLACEMENT ? shallowScores[i]
+                    : place(core, boards, 0, lookahead, shape, move / 64, move % 64, core.pieceRow(), 0, deadline);
+        }
+
+        // Fork-join task that scores the first-level candidates [from, to)
+        static class ScoreTask extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+
+            private final TetrisAI ai;
+            private final TetrisCore core;
+            private final long deadline;
+            private final int from, to;
+
+            ScoreTask(TetrisAI ai, TetrisCore core, long deadline, int from, int to) {
+                this.ai = ai;
+                this.core = core;
+                this.deadline = deadline;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (to - from == 1) {
+                    ai.scoreCandidate(core, from, deadline);
+                    return;
                 }
+                int mid = (from + to) >>> 1;
+                invokeAll(new ScoreTask(ai, core, deadline, from, mid), new ScoreTask(ai, core, deadline, mid, to));
             }
-            if (isComplete) { // If the row is complete
-                for (int r = row; r > 0; r--) { // Shift all rows above the completed row down
-                    board[r] = board[r - 1];
+        }
+
+        // Method to choose and play one block, returns false once the game is over
+        boolean playPiece(TetrisCore core) {
+            if (core.isGameOver()) return false;
+            int move = chooseMove(core);
+            if (move >= 0) {
+                int rotation = move / 64, col = move % 64;
+                for (int i = 0; i < TetrisCore.ROTATIONS && core.rotation() != rotation; i++) core.rotate();
+                while (core.pieceCol() < col && core.moveRight()) {
+                    // Slide right to the chosen column
+                }
+                while (core.pieceCol() > col && core.moveLeft()) {
+                    // Slide left to the chosen column
                 }
-                board[0] = new int[BOARD_WIDTH]; // Clear the top row
             }
+            while (core.moveDown()) {
+                // Drop the block
+            }
+            core.tick(); // Settle it and spawn the next block
+            return !core.isGameOver();
         }
-    }
 
-    // Method to move the current block left
-    private void moveBlockLeft() {
-        if (canMoveLeft(currentBlock)) { // Check if the block can move left
-            currentBlock.col--; // Move the block left
+        // Helper method: drop the block at level onto boards[level], then score it with lookahead down to depth.
+        // Returns TIMED_OUT if the deadline passes before the search below it finishes.
+        private double place(TetrisCore core, long[][] boards, int level, int depth, int shape, int rotation, int col,
+                             int startRow, int lines, long deadline) {
+            long[] board = boards[level];
+            if (!TetrisCore.fits(board, core.width, shape, rotation, startRow, col)) return NO_PLACEMENT;
+            int row = startRow;
+            while (TetrisCore.fits(board, core.width, shape, rotation, row + 1, col)) row++; // Fall straight down
+
+            // Build the next board in the scratch rows of the next level
+            long[] next = boards[level + 1];
+            System.arraycopy(board, 0, next, 0, height);
+            long[] masks = TetrisCore.MASKS[shape][rotation];
+            for (int i = 0; i < masks.length; i++) {
+                if (row + i >= 0) next[row + i] |= masks[i] << col;
+            }
+            int cleared = clearFullRows(next, core.width);
+
+            if (level == depth) return evaluate(next, core.width, lines + cleared); // Leaf
+            if (System.nanoTime() > deadline) return TIMED_OUT;
+
+            // Best placement of the next upcoming block on the new board
+            int nextShape = PieceSupply.shapeOf(core.supply().peek(level));
+            double best = NO_PLACEMENT;
+            for (int r = 0; r < DISTINCT_ROTATIONS[nextShape]; r++) {
+                for (int c = 0; c + TetrisCore.WIDTHS[nextShape][r] <= core.width; c++) {
+                    double score = place(core, boards, level + 1, depth, nextShape, r, c, 0, lines + cleared, deadline);
+                    if (Double.isNaN(score)) return TIMED_OUT; // Stop the whole search
+                    best = Math.max(best, score);
+                }
+            }
+            return best;
         }
-    }
 
-    // Method to check if the current block can move left
-    private boolean canMoveLeft(Block block) {
-        for (int row = 0; row < block.shape.length; row++) {
-            for (int col = 0; col < block.shape[row].length; col++) {
-                if (block.shape[row][col] != 0) { // Check if the current cell in the block is occupied
-                    int newRow = block.row + row; // Calculate the new row position
-                    int newCol = block.col + col - 1; // Calculate the new column position
-                    if (newCol < 0 || (newRow >= 0 && board[newRow][newCol] != 0)) { // Check if the new position is out of bounds or occupied
-                        return false; // The block cannot move left
-                    }
+        // Helper method to remove full rows from a row-mask board in one pass, returns the rows removed
+        private static int clearFullRows(long[] rows, int width) {
+            long full = width == 64 ? -1L : (1L << width) - 1;
+            int write = rows.length - 1;
+            for (int read = rows.length - 1; read >= 0; read--) {
+                if (rows[read] != full) rows[write--] = rows[read]; // Keep the row, moved down past cleared ones
+            }
+            int cleared = write + 1;
+            while (write >= 0) rows[write--] = 0; // Empty rows enter at the top
+            return cleared;
+        }
+
+        // Helper method for the heuristic score of a board
+        private static double evaluate(long[] rows, int width, int lines) {
+            long covered = 0; // Columns that already have a filled cell above the current row
+            int holes = 0, aggregateHeight = 0, bumpiness = 0;
+            int h = rows.length;
+            int[] columnHeight = COLUMN_HEIGHTS.get();
+            java.util.Arrays.fill(columnHeight, 0, width, 0);
+            for (int r = 0; r < h; r++) {
+                long row = rows[r];
+                holes += Long.bitCount(covered & ~row); // Empty cells under a filled one
+                for (long top = row & ~covered; top != 0; top &= top - 1) { // First filled cell of a column
+                    columnHeight[Long.numberOfTrailingZeros(top)] = h - r;
                 }
+                covered |= row;
+            }
+            for (int c = 0; c < width; c++) {
+                aggregateHeight += columnHeight[c];
+                if (c > 0) bumpiness += Math.abs(columnHeight[c] - columnHeight[c - 1]);
             }
+            return HEIGHT_WEIGHT * aggregateHeight + LINES_WEIGHT * lines + HOLES_WEIGHT * holes + BUMPINESS_WEIGHT * bumpiness;
         }
-        return true; // The block can move left
-    }
 
-    // Method to move the current block right
-    private void moveBlockRight() {
-        if (canMoveRight(currentBlock)) { // Check if the block can move right
-            currentBlock.col++; // Move the block right
+        // Main method to measure the player on headless games
+        public static void main(String[] args) {
+            int games = args.length > 0 ? Integer.parseInt(args[0]) : 4; // Number of games to play
+            int lookahead = args.length > 1 ? Integer.parseInt(args[1]) : 1; // Upcoming blocks to search
+            long budgetMillis = args.length > 2 ? Long.parseLong(args[2]) : 5; // Time per block
+            int maxPieces = 2_000; // Cap on blocks per game
+
+            TetrisAI ai = new TetrisAI(20, lookahead, budgetMillis * 1_000_000, ForkJoinPool.commonPool());
+            long pieces = 0, lines = 0;
+            long start = System.nanoTime();
+            for (int g = 0; g < games; g++) {
+                TetrisCore core = new TetrisCore(10, 20, new PieceSupply(g, 3, PieceSupply.bag()));
+                int placed = 0;
+                while (placed < maxPieces && ai.playPiece(core)) placed++;
+                pieces += placed;
+                lines += core.linesCleared();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Games: %d, pieces: %d, lines: %d, time: %.3f s%n", games, pieces, lines, seconds);
+            System.out.printf("Pieces per second: %.0f%n", pieces / seconds);
         }
     }
 
-    // Method to check if the current block can move right
-    private boolean canMoveRight(Block block) {
-        for (int row = 0; row < block.shape.length; row++) {
-            for (int col = 0; col < block.shape[row].length; col++) {
-                if (block.shape[row][col] != 0) { // Check if the current cell in the block is occupied
-                    int newRow = block.row + row; // Calculate the new row position
-                    int newCol = block.col + col + 1; // Calculate the new column position
-                    if (newCol >= BOARD_WIDTH || (newRow >= 0 && board[newRow][newCol] != 0)) { // Check if the new position is out of bounds or occupied
-                        return false; // The block cannot move right
+    // Constants for the game board dimensions, block size, and colors
+    private static final int BOARD_WIDTH = 10; // Width of the game board in blocks
+    private static final int BOARD_HEIGHT = 20; // Height of the game board in blocks
+    private static final int BLOCK_SIZE = 30; // Size of each block in pixels
+    private static final Color[] COLORS = { Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW, Color.ORANGE }; // Colors for the blocks
+    private static final Font GAME_OVER_FONT = new Font("Arial", Font.BOLD, 36); // Font for the game over message
+    private static final boolean FRAME_STATS = Boolean.getBoolean("tetris.frameStats"); // Print paint times
+
+    private Timer timer; // Timer to control the game speed
+    private final long seed; // Seed of the piece supply, enough to replay the blocks of this game
+    private final TetrisCore core; // Game rules and board state
+    private final BufferedImage boardImage; // Settled cells, redrawn only where rows changed
+    private int blockX, blockY, blockW, blockH; // Pixel bounds of the falling block when it was last repainted
+    private long paintNanos; // Time spent painting since the last report
+    private int paintFrames; // Frames painted since the last report
+
+    // Constructor to initialize the game with a random seed
+    public Q3_bAns() {
+        this(new Random().nextLong());
+    }
+
+    // Constructor to initialize the game with the blocks of the given seed
+    public Q3_bAns(long seed) {
+        this.seed = seed;
+        setPreferredSize(new Dimension(BOARD_WIDTH * BLOCK_SIZE, BOARD_HEIGHT * BLOCK_SIZE)); // Set the size of the game panel
+        setBackground(Color.BLACK); // Set the background color to black
+        setFocusable(true); // Allow the panel to receive key events
+        addKeyListener(new KeyAdapter() { // Add a key listener to handle key presses
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!core.isGameOver()) { // Only handle key presses if the game is not over
+                    switch (e.getKeyCode()) {
+                        case KeyEvent.VK_LEFT:
+                            core.moveLeft(); // Move the block left
+                            break;
+                        case KeyEvent.VK_RIGHT:
+                            core.moveRight(); // Move the block right
+                            break;
+                        case KeyEvent.VK_DOWN:
+                            core.moveDown(); // Move the block down
+                            break;
+                        case KeyEvent.VK_UP:
+                            core.rotate(); // Rotate the block
+                            break;
                     }
+                    refresh(); // Redraw the changed parts of the game panel
                 }
             }
-        }
-        return true; // The block can move right
+        });
+        PieceSupply supply = new PieceSupply(seed, 3, PieceSupply.uniform()); // Blocks for this game, same as TetrisSimulation
+        core = new TetrisCore(BOARD_WIDTH, BOARD_HEIGHT, supply); // Initialize the board and the first block
+        boardImage = new BufferedImage(BOARD_WIDTH * BLOCK_SIZE, BOARD_HEIGHT * BLOCK_SIZE, BufferedImage.TYPE_INT_RGB);
+        refresh(); // Draw the empty board
+        timer = new Timer(500, this); // Initialize the timer with a delay of 500ms
+        timer.start(); // Start the timer
     }
 
-    // Method to move the current block down
-    private void moveBlockDown() {
-        if (canMoveDown(currentBlock)) { // Check if the block can move down
-            currentBlock.row++; // Move the block down
+    // Method called by the timer to update the game state
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        if (!core.isGameOver()) { // Only update the game if it is not over
+            core.tick(); // Move the block down, or place it and spawn the next one
+            refresh(); // Redraw the changed parts of the game panel
         }
     }
 
-    // Method to rotate the current block
-    private void rotateBlock() {
-        currentBlock.rotate(); // Rotate the block
-        if (!canMoveDown(currentBlock)) { // Check if the block can move down after rotation
-            currentBlock.rotate(); // Rotate back if collision detected
-            currentBlock.rotate();
-            currentBlock.rotate();
+    // Method to update the offscreen board and repaint only the regions that changed
+    private void refresh() {
+        // Redraw the changed rows of the settled board into the offscreen image
+        int top = core.dirtyTop(), bottom = core.dirtyBottom();
+        if (top <= bottom) {
+            Graphics2D g = boardImage.createGraphics();
+            g.setColor(Color.BLACK); // Clear the rows to the background color
+            g.fillRect(0, top * BLOCK_SIZE, BOARD_WIDTH * BLOCK_SIZE, (bottom - top + 1) * BLOCK_SIZE);
+            for (int row = top; row <= bottom; row++) {
+                for (long bits = core.rowMask(row); bits != 0; bits &= bits - 1) { // Each set bit is a settled cell
+                    int col = Long.numberOfTrailingZeros(bits);
+                    g.setColor(COLORS[core.cell(row, col) - 1]);
+                    g.fillRect(col * BLOCK_SIZE, row * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE);
+                }
+            }
+            g.dispose();
+            core.clearDirty();
+            repaint(0, top * BLOCK_SIZE, BOARD_WIDTH * BLOCK_SIZE, (bottom - top + 1) * BLOCK_SIZE);
+        }
+
+        // Repaint where the block was, then where it is now
+        repaint(blockX, blockY, blockW, blockH);
+        blockX = core.pieceCol() * BLOCK_SIZE;
+        blockY = core.pieceRow() * BLOCK_SIZE;
+        blockW = TetrisCore.WIDTHS[core.shape()][core.rotation()] * BLOCK_SIZE;
+        blockH = TetrisCore.HEIGHTS[core.shape()][core.rotation()] * BLOCK_SIZE;
+        repaint(blockX, blockY, blockW, blockH);
+
+        if (core.isGameOver()) {
+            repaint(); // The game over message spans the whole panel, drawn once
         }
     }
 
     // Method to paint the game panel
     @Override
     protected void paintComponent(Graphics g) {
-        super.paintComponent(g); // Call the superclass method to paint the background
-        // Draw the game board
-        for (int row = 0; row < BOARD_HEIGHT; row++) {
-            for (int col = 0; col < BOARD_WIDTH; col++) {
-                if (board[row][col] != 0) { // Check if the current cell is occupied
-                    g.setColor(COLORS[board[row][col] - 1]); // Set the color for the block
-                    g.fillRect(col * BLOCK_SIZE, row * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE); // Draw the block
-                }
-            }
-        }
+        long start = System.nanoTime();
+        // Copy the settled board from the offscreen image, only the clipped dirty region is transferred
+        g.drawImage(boardImage, 0, 0, null);
         // Draw the current block
-        if (currentBlock != null) {
-            g.setColor(currentBlock.color); // Set the color for the current block
-            for (int row = 0; row < currentBlock.shape.length; row++) {
-                for (int col = 0; col < currentBlock.shape[row].length; col++) {
-                    if (currentBlock.shape[row][col] != 0) { // Check if the current cell in the block is occupied
-                        g.fillRect((currentBlock.col + col) * BLOCK_SIZE, (currentBlock.row + row) * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE); // Draw the block
-                    }
-                }
+        g.setColor(COLORS[core.color()]); // Set the color for the current block
+        long[] masks = TetrisCore.MASKS[core.shape()][core.rotation()];
+        for (int row = 0; row < masks.length; row++) {
+            for (long bits = masks[row]; bits != 0; bits &= bits - 1) { // Each set bit is a filled cell
+                int col = Long.numberOfTrailingZeros(bits);
+                g.fillRect((core.pieceCol() + col) * BLOCK_SIZE, (core.pieceRow() + row) * BLOCK_SIZE, BLOCK_SIZE, BLOCK_SIZE); // Draw the block
             }
         }
         // Display game over message
-        if (isGameOver) {
+        if (core.isGameOver()) {
             g.setColor(Color.WHITE); // Set the color for the game over message
-            g.setFont(new Font("Arial", Font.BOLD, 36)); // Set the font for the game over message
+            g.setFont(GAME_OVER_FONT); // Set the font for the game over message
             g.drawString("Game Over", 50, 300); // Draw the game over message
         }
+
+        // Frame-time counter
+        if (FRAME_STATS) {
+            paintNanos += System.nanoTime() - start;
+            if (++paintFrames == 100) {
+                System.out.printf("Average paint time: %.1f us over %d frames%n", paintNanos / 1e3 / paintFrames, paintFrames);
+                paintNanos = 0;
+                paintFrames = 0;
+            }
+        }
+    }
+
+    // Method to get the seed of this game, for replaying it
+    public long seed() {
+        return seed;
     }
 
     // Main method to start the game
     public static void main(String[] args) {
-        JFrame frame = new JFrame("Tetris Game"); // Create a new JFrame for the game
-        Q3_bAns  game = new Q3_bAns(); // Create a new instance of the game
+        // Seed from the first argument or -Dtetris.seed, otherwise a random one
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : Long.getLong("tetris.seed", new Random().nextLong());
+        System.out.println("Seed: " + seed + " (replay with: java Q3_bAns " + seed + ")");
+
+        JFrame frame = new JFrame("Tetris Game (seed " + seed + ")"); // Create a new JFrame for the game
+        Q3_bAns  game = new Q3_bAns(seed); // Create a new instance of the game
         frame.add(game); // Add the game panel to the frame
         frame.pack(); // Pack the frame to fit the game panel
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // Set the default close operation
         frame.setLocationRelativeTo(null); // Center the frame on the screen
         frame.setVisible(true); // Make the frame visible
     }
-
-    // Inner class to represent a block
-    static class Block {
-        int[][] shape; // 2D array representing the shape of the block
-        int row, col; // Position of the block on the board
-        Color color; // Color of the block
-        int colorIndex; // Index of the color in the COLORS array
-
-        // Constructor to initialize the block
-        public Block(int[][] shape, Color color) {
-            this.shape = shape; // Set the shape of the block
-            this.row = 0; // Set the initial row position
-            this.col = BOARD_WIDTH / 2 - shape[0].length / 2; // Set the initial column position
-            this.color = color; // Set the color of the block
-            this.colorIndex = getColorIndex(color); // Set the color index
-        }
-
-        // Method to get the index of the color in the COLORS array
-        private int getColorIndex(Color color) {
-            for (int i = 0; i < COLORS.length; i++) {
-                if (COLORS[i].equals(color)) { // Check if the color matches
-                    return i; // Return the index of the color
-                }
-            }
-            return -1; // Return -1 if the color is not found
-        }
-
-        // Method to rotate the block 90 degrees clockwise
-        public void rotate() {
-            int rows = shape.length; // Get the number of rows in the shape
-            int cols = shape[0].length; // Get the number of columns in the shape
-            int[][] rotated = new int[cols][rows]; // Create a new array for the rotated shape
-            for (int i = 0; i < rows; i++) {
-                for (int j = 0; j < cols; j++) {
-                    rotated[j][rows - i - 1] = shape[i][j]; // Rotate the shape 90 degrees clockwise
-                }
-            }
-            shape = rotated; // Set the shape to the rotated shape
-        }
-    }
-}
\ No newline at end of file
+}
@@ -5,28 +5,92 @@ Approach:
 
 Use a list of maps to store tweet data (user_id, tweet_id, tweet, tweet_date).
 
-Extract hashtags from the tweet text and count their occurrences using a HashMap.
+Extract hashtags from the tweet text and count their occurrences in a TagTable.
 
-Sort the hashtags by count in descending order, and alphabetically if counts are equal.
+Select the K hashtags with the highest counts, and alphabetically first if counts are equal.
 
-Display the top 3 hashtags in a formatted table.
+Display the top K hashtags in a formatted table (K is the first program argument, default 3).
 
 Key Steps:
 
-Extract Hashtags: Split the tweet text and identify words starting with #.
+Extract Hashtags: Scan the tweet text for # at the start or after whitespace, followed by letters, digits or _.
 
-Count Hashtags: Use a HashMap to store and count hashtag occurrences.
+Count Hashtags: Add each hashtag to a TagTable, an open-addressing table with one long count per hashtag.
 
-Sort Hashtags: Sort by count (descending) and then by hashtag name (ascending).
+Select Hashtags: Keep the K best with a heap of size K, by count (descending) and then by hashtag name (ascending).
 
-Display Results: Print the top 3 hashtags in a table format
+Display Results: Print the top K hashtags in a table format
 
 Complexity:
-Time: O(n * m), where n is the number of tweets and m is the average number of words per tweet.
+Time: O(c + U log K), where c is the number of characters in all tweets and U is the number of unique hashtags.
 
 Space: O(k), where k is the number of unique hashtags.
+
+Streaming Top-K (HashtagCounter):
+
+Tweets are added one at a time and counted in a TagTable, an open-addressing hash table that stores each
+hashtag once and keeps its count in a long[], with no boxed values.
+
+The top K hashtags are found with a heap of size K that keeps the K best seen so far, using the same order
+(count descending, then hashtag name ascending), instead of sorting every hashtag.
+
+Time: O(U log K) per report, where U is the number of unique hashtags. K is the first program argument (default 3).
+
+Parallel Counting (HashtagCounter.countParallel):
+
+The tweet list is split in halves on a ForkJoinPool down to a few ranges per core (at least MIN_PIECE_TWEETS
+tweets each). Each range is counted into its own HashtagCounter, so workers share nothing while counting,
+and two halves are merged by adding the smaller table into the larger one when both are done.
+
+Merging costs O(U) per level and there are only O(log cores) levels, so the counting of n tweets scales
+with the cores.
+
+Approximate Heavy Hitters (HashtagSketch):
+
+A Count-Min Sketch with ceil(e / epsilon) columns and ceil(ln(1 / delta)) rows over-counts any hashtag by at most
+epsilon * N with probability 1 - delta, where N is the number of hashtags added. That bound needs independent
+columns per row, so each row takes its column from a seeded 64-bit hash of the hashtag's characters, not from
+the 32-bit String.hashCode, where colliding hashtags like "#Aa" and "#BB" are easy to make. The seed is random per
+process unless given, so sketches merged in one process agree and outsiders cannot predict the columns.
+
+A Space-Saving set of m candidates keeps the hashtags that may be heavy. When it is full, a new hashtag replaces
+the candidate with the smallest count, so a candidate's count over-counts by at most N / m.
+
+The reported estimate is the smaller of the two counts. Memory depends only on epsilon, delta and m.
+
+Sketches with the same settings merge by adding their Count-Min tables and merging their candidate sets,
+so several ingest shards can be combined.
+
+Tokenizer (HashtagScanner):
+
+The tweet text is scanned once as a CharSequence. A hashtag is a # at the start of the text or after whitespace,
+followed by one or more letters, digits or _, so "#FeelGood!" and tab-separated hashtags are found too.
+
+The hash of each hashtag is built during the scan with the same formula as String.hashCode, and the table
+compares the span in place, so no substring, String[] or regex is created. A String is only made the first
+time a hashtag is seen.
+
+Sliding Trends (HashtagTrends):
+
+Time is cut into buckets (one day in the example, from tweet_date). A ring of R buckets keeps the sparse
+counts of each bucket by hashtag id, so the last R buckets are always available.
+
+Each hashtag id counts the kept buckets that contain it. When the last of them expires the id is removed from
+the TagTable and reused by a later hashtag, so memory follows the hashtags of the last R buckets, not every
+hashtag ever seen.
+
+A tracked window of W buckets keeps the count of every hashtag over the last W buckets and a TreeSet ranking.
+A new tweet updates the windows that contain its bucket, and when time moves on each window subtracts the
+one bucket that left it, so only the changed hashtags are touched. Top K of a tracked window reads the first
+K entries of its ranking.
+
+Any window of up to R buckets can be asked for. The first query of an untracked size tracks it, which adds up
+its buckets once (without recounting tweets), and later queries of that size cost O(K).
  */
+import java.time.LocalDate;
 import java.util.*; // Import necessary Java utilities, including collections like List and Map.
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class Q4_aAns {
     public static void main(String[] args) {
@@ -43,57 +107,861 @@ public class Q4_aAns {
         tweets.add(createTweet("140", "18", "Innovation drives us. #TechLife #FutureTech", "2024-02-07"));
         tweets.add(createTweet("141", "19", "Connecting with nature's serenity. #Nature #Peaceful", "2024-02-09"));
 
-        // Count hashtag mentions
-        // Create a map to store hashtags and their counts.
-        Map<String, Integer> hashtagCounts = new HashMap<>();
+        // Number of hashtags to report, 3 unless given as the first argument.
+        int topK = args.length > 0 ? Integer.parseInt(args[0]) : 3;
 
-        // Iterate through each tweet in the list.
+        // Count hashtag mentions, split across worker threads when there are enough tweets.
+        List<String> texts = new ArrayList<>();
         for (Map<String, String> tweet : tweets) {
-            // Get the tweet text from the current tweet.
-            String tweetText = tweet.get("tweet");
-
-            // Split the tweet text into individual words.
-            String[] words = tweetText.split(" ");
-
-            // Iterate through each word in the tweet.
-            for (String word : words) {
-                // Check if the word starts with a hashtag (#).
-                if (word.startsWith("#")) {
-                    // Update the count for the hashtag in the map.
-                    hashtagCounts.put(word, hashtagCounts.getOrDefault(word, 0) + 1);
-                }
-            }
+            texts.add(tweet.get("tweet"));
         }
+        HashtagCounter counter = HashtagCounter.countParallel(texts);
 
-        // Sort by count descending, then by hashtag name
-        // Convert the map entries to a list for sorting.
-        List<Map.Entry<String, Integer>> sortedHashtags = new ArrayList<>(hashtagCounts.entrySet());
+        // Top K hashtags by count descending, then by hashtag name.
+        List<Map.Entry<String, Long>> topHashtags = counter.topK(topK);
 
-        // Sort the list of hashtags by count in descending order.
-        // If counts are equal, sort alphabetically by hashtag name.
-        sortedHashtags.sort((a, b) -> {
-            int countCompare = b.getValue().compareTo(a.getValue()); // Compare counts in descending order.
-            if (countCompare != 0) return countCompare;
-            return a.getKey().compareTo(b.getKey()); // If counts are equal, compare hashtag names.
-        });
-
-        // Output the top 3 hashtags in the redesigned table format
+        // Output the top K hashtags in the redesigned table format
         // Print the table header.
         System.out.println("+-------------+---------+");
         System.out.println("|   HASHTAG   |  COUNT  |");
         System.out.println("+-------------+---------+");
 
-        // Iterate through the top 3 hashtags (or fewer if there are less than 3).
-        for (int i = 0; i < Math.min(3, sortedHashtags.size()); i++) {
-            // Get the current hashtag and its count.
-            Map.Entry<String, Integer> entry = sortedHashtags.get(i);
-
+        // Iterate through the top K hashtags (fewer if there are not that many).
+        for (Map.Entry<String, Long> entry : topHashtags) {
             // Print the hashtag and its count in a formatted table row.
             System.out.printf("| %-11s | %-7d |%n", entry.getKey(), entry.getValue());
         }
 
         // Print the table footer.
         System.out.println("+-------------+---------+");
+
+        // Approximate mode: two shards each sketch half of the tweets, then their sketches are merged.
+        HashtagSketch shardA = new HashtagSketch(0.01, 0.01, 64);
+        HashtagSketch shardB = new HashtagSketch(0.01, 0.01, 64);
+        for (int i = 0; i < tweets.size(); i++) {
+            (i % 2 == 0 ? shardA : shardB).addTweet(tweets.get(i).get("tweet"));
+        }
+        shardA.merge(shardB);
+
+        System.out.println("+-------------+---------+---------+");
+        System.out.println("|   HASHTAG   |  ~COUNT |  ERROR  |");
+        System.out.println("+-------------+---------+---------+");
+        for (HashtagSketch.Estimate estimate : shardA.topK(topK)) {
+            System.out.printf("| %-11s | %-7d | %-7d |%n", estimate.tag, estimate.count, estimate.errorBound);
+        }
+        System.out.println("+-------------+---------+---------+");
+
+        // Sliding trends: one bucket per day from tweet_date, keeping a week and tracking the last 3 days.
+        HashtagTrends trends = new HashtagTrends(1, 7);
+        trends.track(3);
+        for (Map<String, String> tweet : tweets) {
+            trends.addTweet(tweet.get("tweet"), LocalDate.parse(tweet.get("tweet_date")).toEpochDay());
+        }
+
+        System.out.println("+-------------+---------+");
+        System.out.println("| LAST 3 DAYS |  COUNT  |");
+        System.out.println("+-------------+---------+");
+        for (Map.Entry<String, Long> entry : trends.topK(3, topK)) {
+            System.out.printf("| %-11s | %-7d |%n", entry.getKey(), entry.getValue());
+        }
+        System.out.println("+-------------+---------+");
+    }
+
+    // Class that counts hashtags in an open-addressing hash table with primitive counts.
+    // Every hashtag gets a stable id in the order it was first seen.
+    static class TagTable {
+        private String[] names = new String[16]; // Hashtag of each id
+        private int[] hashes = new int[16];      // Hash code of each id
+        private long[] counts = new long[16];    // Count of each id
+        private int size;                        // Ids handed out so far, including removed ones
+        private int[] slots = new int[32];       // id + 1 per slot, 0 when empty; length is a power of two
+        private int[] freeIds = new int[16];     // Removed ids, reused before new ones
+        private int freeCount;
+
+        // Method to add delta to the count of a hashtag, returns its id
+        int add(String tag, long delta) {
+            return add(tag, 0, tag.length(), tag.hashCode(), delta);
+        }
+
+        // Method to add delta to the count of the hashtag text[start, end) whose String.hashCode is hash
+        int add(CharSequence text, int start, int end, int hash, long delta) {
+            int mask = slots.length - 1;
+            for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) { // Linear probing
+                int id = slots[slot] - 1;
+                if (id < 0) { // Empty slot, the hashtag is new, only now is its String made
+                    id = newId(text.subSequence(start, end).toString(), hash);
+                    slots[slot] = id + 1;
+                    counts[id] += delta;
+                    if (size * 2 > slots.length) rehash(); // Keep the table at most half full
+                    return id;
+                }
+                if (hashes[id] == hash && sameText(names[id], text, start, end)) {
+                    counts[id] += delta;
+                    return id;
+                }
+            }
+        }
+
+        // Method to get the number of distinct hashtags
+        int size() {
+            return size - freeCount;
+        }
+
+        // Method to forget a hashtag, its id is reused by a later new hashtag
+        void remove(int id) {
+            int mask = slots.length - 1;
+            int hole = mix(hashes[id]) & mask;
+            while (slots[hole] != id + 1) hole = (hole + 1) & mask;
+
+            // Shift later entries of the probe run back so lookups still find them
+            for (int slot = (hole + 1) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                int home = mix(hashes[slots[slot] - 1]) & mask;
+                if (((slot - home) & mask) >= ((slot - hole) & mask)) { // Its home is not after the hole
+                    slots[hole] = slots[slot];
+                    hole = slot;
+                }
+            }
+            slots[hole] = 0;
+
+            names[id] = null;
+            counts[id] = 0;
+            if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+            freeIds[freeCount++] = id;
+        }
+
+        // Method to get the hashtag of an id
+        String name(int id) {
+            return names[id];
+        }
+
+        // Method to get the count of an id
+        long count(int id) {
+            return counts[id];
+        }
+
+        // Method to get the ids of the k best hashtags, best first, using a heap of size k
+        int[] topK(int k) {
+            k = Math.max(0, Math.min(k, size()));
+            int[] heap = new int[k]; // Min-heap: the worst of the kept hashtags is at the root
+            int heapSize = 0;
+            for (int id = 0; id < size; id++) {
+                if (names[id] == null) continue; // Removed
+                if (heapSize < k) {
+                    heap[heapSize] = id;
+                    siftUp(heap, heapSize++);
+                } else if (k > 0 && better(id, heap[0])) {
+                    heap[0] = id; // Replace the worst kept hashtag
+                    siftDown(heap, heapSize);
+                }
+            }
+            // Take the worst out repeatedly, filling the result from the back
+            int[] result = new int[k];
+            for (int i = k - 1; i >= 0; i--) {
+                result[i] = heap[0];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize);
+            }
+            return result;
+        }
+
+        // Helper method for the report order: higher count first, then hashtag name ascending
+        private boolean better(int a, int b) {
+            if (counts[a] != counts[b]) return counts[a] > counts[b];
+            return names[a].compareTo(names[b]) < 0;
+        }
+
+        // Helper method to move heap[i] up while it is worse than its parent
+        private void siftUp(int[] heap, int i) {
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (!better(heap[parent], heap[i])) break;
+                int tmp = heap[parent];
+                heap[parent] = heap[i];
+                heap[i] = tmp;
+                i = parent;
+            }
+        }
+
+        // Helper method to move heap[0] down while a child is worse
+        private void siftDown(int[] heap, int heapSize) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) break;
+                if (child + 1 < heapSize && better(heap[child], heap[child + 1])) child++; // The worse child
+                if (!better(heap[i], heap[child])) break;
+                int tmp = heap[child];
+                heap[child] = heap[i];
+                heap[i] = tmp;
+                i = child;
+            }
+        }
+
+        // Method to add every count of another table into this one
+        void merge(TagTable other) {
+            for (int id = 0; id < other.size; id++) {
+                String name = other.names[id];
+                if (name == null) continue; // Removed
+                add(name, 0, name.length(), other.hashes[id], other.counts[id]);
+            }
+        }
+
+        // Helper method to store a new hashtag under the next id
+        private int newId(String tag, int hash) {
+            if (freeCount > 0) {
+                int id = freeIds[--freeCount];
+                names[id] = tag;
+                hashes[id] = hash;
+                return id;
+            }
+            if (size == names.length) {
+                names = Arrays.copyOf(names, size * 2);
+                hashes = Arrays.copyOf(hashes, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            names[size] = tag;
+            hashes[size] = hash;
+            return size++;
+        }
+
+        // Helper method to double the slot array and reinsert every id
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int id = 0; id < size; id++) {
+                if (names[id] == null) continue; // Removed
+                int slot = mix(hashes[id]) & mask;
+                while (slots[slot] != 0) slot = (slot + 1) & mask;
+                slots[slot] = id + 1;
+            }
+        }
+
+        // Helper method to spread the bits of a hash code before masking
+        static int mix(int hash) {
+            hash *= 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+
+        // Helper method to check if name has the same characters as text[start, end)
+        static boolean sameText(String name, CharSequence text, int start, int end) {
+            if (name.length() != end - start) return false;
+            for (int i = 0; i < name.length(); i++) {
+                if (name.charAt(i) != text.charAt(start + i)) return false;
+            }
+            return true;
+        }
+    }
+
+    // Class that finds the hashtags of a tweet without splitting it into words
+    static class HashtagScanner {
+        // Receives each hashtag as the span text[start, end) (including the #) and its String.hashCode
+        interface Sink {
+            void hashtag(CharSequence text, int start, int end, int hash);
+        }
+
+        // Method to pass every hashtag of text to sink, in order
+        static void scan(CharSequence text, Sink sink) {
+            int n = text.length();
+            int i = 0;
+            while (i < n) {
+                char c = text.charAt(i);
+                // A hashtag starts with # at the start of the text or right after whitespace
+                if (c != '#' || (i > 0 && !Character.isWhitespace(text.charAt(i - 1)))) {
+                    i++;
+                    continue;
+                }
+                int start = i++;
+                int hash = '#';
+                while (i < n && isTagChar(text.charAt(i))) {
+                    hash = 31 * hash + text.charAt(i); // Same formula as String.hashCode
+                    i++;
+                }
+                if (i - start > 1) sink.hashtag(text, start, i, hash); // A lone # is not a hashtag
+            }
+        }
+
+        // Helper method for the characters allowed after the #
+        static boolean isTagChar(char c) {
+            return Character.isLetterOrDigit(c) || c == '_';
+        }
+    }
+
+    // Class that ingests tweets one at a time and reports the top K hashtags
+    static class HashtagCounter {
+        private final TagTable table = new TagTable();
+        private final HashtagScanner.Sink sink = (text, start, end, hash) -> table.add(text, start, end, hash, 1);
+
+        // Method to count the hashtags of one tweet
+        void addTweet(CharSequence tweetText) {
+            HashtagScanner.scan(tweetText, sink);
+        }
+
+        // Method to add the counts of another counter into this one
+        void merge(HashtagCounter other) {
+            table.merge(other.table);
+        }
+
+        // Method to count a list of tweets on the common pool, each worker with its own counter
+        static HashtagCounter countParallel(List<? extends CharSequence> tweets) {
+            return countParallel(tweets, ForkJoinPool.commonPool());
+        }
+
+        // Method to count a list of tweets on the given pool, each worker with its own counter
+        static HashtagCounter countParallel(List<? extends CharSequence> tweets, ForkJoinPool pool) {
+            // A few ranges per core so uneven tweets still balance, without many merges of large tables
+            int pieceSize = Math.max(MIN_PIECE_TWEETS, tweets.size() / (pool.getParallelism() * 4));
+            CountTask task = new CountTask(tweets, pieceSize, 0, tweets.size());
+            if (tweets.size() <= pieceSize) return task.compute(); // Small input, stay sequential
+            return pool.invoke(task);
+        }
+
+        private static final int MIN_PIECE_TWEETS = 1 << 12; // Smallest range counted by one task
+
+        // Fork-join task that counts tweets [from, to) into a counter of its own
+        private static class CountTask extends RecursiveTask<HashtagCounter> {
+            private static final long serialVersionUID = 1L;
+
+            private final List<? extends CharSequence> tweets;
+            private final int pieceSize;
+            private final int from, to;
+
+            CountTask(List<? extends CharSequence> tweets, int pieceSize, int from, int to) {
+                this.tweets = tweets;
+                this.pieceSize = pieceSize;
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected HashtagCounter compute() {
+                if (to - from <= pieceSize) {
+                    HashtagCounter counter = new HashtagCounter();
+                    for (int i = from; i < to; i++) {
+                        counter.addTweet(tweets.get(i));
+                    }
+                    return counter;
+                }
+                int mid = (from + to) >>> 1;
+                CountTask left = new CountTask(tweets, pieceSize, from, mid);
+                left.fork(); // Count the left half asynchronously
+                HashtagCounter right = new CountTask(tweets, pieceSize, mid, to).compute();
+                HashtagCounter leftCounter = left.join();
+
+                // Merge the smaller table into the larger one
+                if (leftCounter.table.size() < right.table.size()) {
+                    right.merge(leftCounter);
+                    return right;
+                }
+                leftCounter.merge(right);
+                return leftCounter;
+            }
+        }
+
+        // Method to get the k best hashtags with their counts, best first
+        List<Map.Entry<String, Long>> topK(int k) {
+            List<Map.Entry<String, Long>> result = new ArrayList<>();
+            for (int id : table.topK(k)) {
+                result.add(new AbstractMap.SimpleEntry<>(table.name(id), table.count(id)));
+            }
+            return result;
+        }
+
+        // Method to get the underlying table of counts
+        TagTable table() {
+            return table;
+        }
+    }
+
+    // Class that estimates the most frequent hashtags in fixed memory, mergeable across shards
+    static class HashtagSketch {
+        // One approximate result row
+        static class Estimate {
+            final String tag;
+            final long count;      // Estimated count, never below the true count
+            final long errorBound; // The true count is at least count - errorBound
+
+            Estimate(String tag, long count, long errorBound) {
+                this.tag = tag;
+                this.count = count;
+                this.errorBound = errorBound;
+            }
+        }
+
+        private static final long PROCESS_SEED = new SplittableRandom().nextLong(); // Default hash seed
+
+        private final double epsilon, delta; // Count-Min error settings
+        private final long seed;             // Seed of the row hashes, equal seeds are needed to merge
+        private final long[][] table;        // Count-Min counters, one row per hash function
+        private final int width;
+        private long total;                  // Number of hashtags added
+
+        // Space-Saving candidates, kept as a min-heap on count so the smallest is at position 0
+        private final String[] tags;
+        private final int[] hashes;   // String.hashCode of each candidate
+        private final long[] counts;
+        private final long[] errors;  // How much each count may over-count
+        private int size;
+
+        // Open-addressing index from hashtag to heap position, so spans can be looked up without a String
+        private final int[] slots;    // Heap position + 1 per slot, 0 when empty; length is a power of two
+        private final int[] slotOf;   // Slot of each heap position
+        private final HashtagScanner.Sink sink = (text, start, end, hash) -> add(text, start, end, hash, 1);
+
+        // Constructor for the given Count-Min error settings and number of candidates, hashing with the process seed
+        HashtagSketch(double epsilon, double delta, int candidates) {
+            this(epsilon, delta, candidates, PROCESS_SEED);
+        }
+
+        // Constructor with an explicit hash seed, for sketches built in different processes and merged later
+        HashtagSketch(double epsilon, double delta, int candidates, long seed) {
+            if (epsilon <= 0 || delta <= 0 || delta >= 1 || candidates < 1) throw new IllegalArgumentException("bad sketch settings");
+            this.epsilon = epsilon;
+            this.delta = delta;
+            this.seed = seed;
+            this.width = (int) Math.ceil(Math.E / epsilon);
+            this.table = new long[(int) Math.ceil(Math.log(1 / delta))][width];
+            this.tags = new String[candidates];
+            this.hashes = new int[candidates];
+            this.counts = new long[candidates];
+            this.errors = new long[candidates];
+            this.slots = new int[Integer.highestOneBit(candidates) * 4]; // At most half full
+            this.slotOf = new int[candidates];
+        }
+
+        // Method to count the hashtags of one tweet
+        void addTweet(CharSequence tweetText) {
+            HashtagScanner.scan(tweetText, sink);
+        }
+
+        // Method to add count occurrences of a hashtag
+        void add(String tag, long count) {
+            add(tag, 0, tag.length(), tag.hashCode(), count);
+        }
+
+        // Method to add count occurrences of the hashtag text[start, end) whose String.hashCode is hash
+        void add(CharSequence text, int start, int end, int hash, long count) {
+            total += count;
+            long wide = spanHash(text, start, end);
+            for (int row = 0; row < table.length; row++) {
+                table[row][column(wide, row)] += count;
+            }
+            offer(text, start, end, hash, count);
+        }
+
+        // Method to estimate the count of any hashtag (never below the true count)
+        long estimate(String tag) {
+            long wide = spanHash(tag, 0, tag.length());
+            long min = Long.MAX_VALUE;
+            for (int row = 0; row < table.length; row++) {
+                min = Math.min(min, table[row][column(wide, row)]);
+            }
+            int i = slots[findSlot(tag, 0, tag.length(), tag.hashCode())] - 1;
+            return i < 0 ? min : Math.min(min, counts[i]);
+        }
+
+        // Method to get the k hashtags with the highest estimates, best first, ties by hashtag name
+        List<Estimate> topK(int k) {
+            List<Estimate> result = new ArrayList<>();
+            long sketchError = (long) Math.ceil(epsilon * total); // Count-Min over-count bound
+            for (int i = 0; i < size; i++) {
+                long count = estimate(tags[i]);
+                result.add(new Estimate(tags[i], count, Math.min(errors[i], sketchError)));
+            }
+            result.sort((a, b) -> a.count != b.count ? Long.compare(b.count, a.count) : a.tag.compareTo(b.tag));
+            return result.subList(0, Math.min(k, result.size()));
+        }
+
+        // Method to add another shard's sketch into this one; both must use the same settings
+        void merge(HashtagSketch other) {
+            if (other.epsilon != epsilon || other.delta != delta || other.tags.length != tags.length || other.seed != seed) {
+                throw new IllegalArgumentException("sketches use different settings");
+            }
+            for (int row = 0; row < table.length; row++) {
+                for (int col = 0; col < width; col++) {
+                    table[row][col] += other.table[row][col];
+                }
+            }
+            total += other.total;
+
+            // A hashtag missing from a full candidate set may have up to that set's smallest count there
+            long thisFloor = size == tags.length ? counts[0] : 0;
+            long otherFloor = other.size == other.tags.length ? other.counts[0] : 0;
+            Map<String, long[]> merged = new HashMap<>(); // tag -> {count, error}
+            for (int i = 0; i < size; i++) {
+                merged.put(tags[i], new long[]{counts[i] + otherFloor, errors[i] + otherFloor});
+            }
+            for (int i = 0; i < other.size; i++) {
+                long[] entry = merged.get(other.tags[i]);
+                if (entry == null) {
+                    merged.put(other.tags[i], new long[]{other.counts[i] + thisFloor, other.errors[i] + thisFloor});
+                } else {
+                    entry[0] += other.counts[i] - otherFloor; // Replace the assumed floor with the real count
+                    entry[1] += other.errors[i] - otherFloor;
+                }
+            }
+
+            // Keep the candidates with the highest merged counts
+            Arrays.fill(slots, 0);
+            size = 0;
+            for (Map.Entry<String, long[]> entry : merged.entrySet()) {
+                offerMerged(entry.getKey(), entry.getValue()[0], entry.getValue()[1]);
+            }
+        }
+
+        // Method to get the number of hashtags added
+        long total() {
+            return total;
+        }
+
+        // Helper method for the Count-Min column of a hash in a row; fixed per row so sketches can merge
+        private int column(long wide, int row) {
+            return (int) Long.remainderUnsigned(mix64(wide + row * 0x9E3779B97F4A7C15L), width);
+        }
+
+        // Helper method for a seeded 64-bit FNV-1a hash of text[start, end), read in place
+        private long spanHash(CharSequence text, int start, int end) {
+            long h = 0xCBF29CE484222325L ^ seed;
+            for (int i = start; i < end; i++) {
+                h ^= text.charAt(i);
+                h *= 0x100000001B3L;
+            }
+            return mix64(h);
+        }
+
+        // Helper method to spread every input bit over the whole 64-bit result (MurmurHash3 finalizer)
+        private static long mix64(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB93FE51A85B3L;
+            return h ^ (h >>> 33);
+        }
+
+        // Helper method for the Space-Saving update
+        private void offer(CharSequence text, int start, int end, int hash, long count) {
+            int slot = findSlot(text, start, end, hash);
+            int i = slots[slot] - 1;
+            if (i >= 0) {
+                counts[i] += count;
+                siftDown(i);
+            } else if (size < tags.length) {
+                place(size++, slot, text.subSequence(start, end).toString(), hash, count, 0);
+                siftUp(size - 1);
+            } else {
+                // Replace the smallest candidate, which may have been counted under the new hashtag
+                removeSlot(slotOf[0]);
+                long floor = counts[0];
+                place(0, findSlot(text, start, end, hash), text.subSequence(start, end).toString(), hash, floor + count, floor);
+                siftDown(0);
+            }
+        }
+
+        // Helper method to keep the largest merged candidates
+        private void offerMerged(String tag, long count, long error) {
+            int hash = tag.hashCode();
+            if (size < tags.length) {
+                place(size++, findSlot(tag, 0, tag.length(), hash), tag, hash, count, error);
+                siftUp(size - 1);
+            } else if (count > counts[0]) {
+                removeSlot(slotOf[0]);
+                place(0, findSlot(tag, 0, tag.length(), hash), tag, hash, count, error);
+                siftDown(0);
+            }
+        }
+
+        // Helper method to put a candidate at heap position i and index it in the given empty slot
+        private void place(int i, int slot, String tag, int hash, long count, long error) {
+            tags[i] = tag;
+            hashes[i] = hash;
+            counts[i] = count;
+            errors[i] = error;
+            slots[slot] = i + 1;
+            slotOf[i] = slot;
+        }
+
+        // Helper method to find the slot holding text[start, end), or the empty slot where it would go
+        private int findSlot(CharSequence text, int start, int end, int hash) {
+            int mask = slots.length - 1;
+            for (int slot = TagTable.mix(hash) & mask; ; slot = (slot + 1) & mask) { // Linear probing
+                int i = slots[slot] - 1;
+                if (i < 0 || (hashes[i] == hash && TagTable.sameText(tags[i], text, start, end))) return slot;
+            }
+        }
+
+        // Helper method to empty a slot, shifting later entries of the probe run back so lookups still find them
+        private void removeSlot(int hole) {
+            int mask = slots.length - 1;
+            for (int slot = (hole + 1) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+                int i = slots[slot] - 1;
+                int home = TagTable.mix(hashes[i]) & mask;
+                if (((slot - home) & mask) >= ((slot - hole) & mask)) { // Its home is not after the hole
+                    slots[hole] = slots[slot];
+                    slotOf[i] = hole;
+                    hole = slot;
+                }
+            }
+            slots[hole] = 0;
+        }
+
+        // Helper method to move a candidate up while its count is below its parent's
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (counts[parent] <= counts[i]) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        // Helper method to move a candidate down while a child has a smaller count
+        private void siftDown(int i) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) break;
+                if (child + 1 < size && counts[child + 1] < counts[child]) child++;
+                if (counts[i] <= counts[child]) break;
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        // Helper method to swap two heap positions
+        private void swap(int a, int b) {
+            String tag = tags[a];
+            tags[a] = tags[b];
+            tags[b] = tag;
+            int hash = hashes[a];
+            hashes[a] = hashes[b];
+            hashes[b] = hash;
+            long count = counts[a];
+            counts[a] = counts[b];
+            counts[b] = count;
+            long error = errors[a];
+            errors[a] = errors[b];
+            errors[b] = error;
+            int slot = slotOf[a];
+            slotOf[a] = slotOf[b];
+            slotOf[b] = slot;
+            slots[slotOf[a]] = a + 1;
+            slots[slotOf[b]] = b + 1;
+        }
+    }
+
+    // Class that keeps hashtag counts for the most recent time buckets and ranks them over sliding windows
+    static class HashtagTrends {
+        private final long bucketSize;        // Length of one bucket, in the same unit as the tweet times
+        private final BucketCounts[] ring;    // Bucket b is kept at ring[b mod R]
+        private final TagTable table = new TagTable(); // Hashtag ids of the kept buckets, counts unused
+        private int[] refs = new int[16];     // Number of kept buckets that contain each id
+        private final List<Window> windows = new ArrayList<>();
+        private long head = Long.MIN_VALUE;   // Newest bucket number seen so far
+        private final HashtagScanner.Sink sink = (text, start, end, hash) -> add(table.add(text, start, end, hash, 0));
+        private long currentBucket;           // Bucket of the tweet being scanned
+        private BucketCounts currentCounts;   // Ring entry of currentBucket
+
+        // Constructor for buckets of bucketSize time units, keeping the last retention buckets
+        HashtagTrends(long bucketSize, int retention) {
+            if (bucketSize < 1 || retention < 1) throw new IllegalArgumentException("bad bucket settings");
+            this.bucketSize = bucketSize;
+            this.ring = new BucketCounts[retention];
+            for (int i = 0; i < retention; i++) {
+                ring[i] = new BucketCounts();
+            }
+        }
+
+        // Method to keep the counts of the last buckets buckets up to date from now on, so their top K is O(K)
+        void track(int buckets) {
+            checkWindow(buckets);
+            for (Window window : windows) {
+                if (window.buckets == buckets) return;
+            }
+            Window window = new Window(buckets);
+            for (BucketCounts bucket : ring) { // Start from the buckets already kept
+                if (window.contains(bucket.bucket)) {
+                    for (int i = 0; i < bucket.size; i++) {
+                        window.update(bucket.ids[i], bucket.counts[i]);
+                    }
+                }
+            }
+            windows.add(window);
+        }
+
+        // Method to count the hashtags of a tweet posted at time, returns false if it is older than the retention
+        boolean addTweet(CharSequence tweetText, long time) {
+            long bucket = Math.floorDiv(time, bucketSize);
+            advanceTo(bucket);
+            if (bucket <= head - ring.length) return false; // Already expired
+            currentBucket = bucket;
+            currentCounts = ring[(int) Math.floorMod(bucket, (long) ring.length)];
+            if (currentCounts.bucket != bucket) { // The ring entry still holds an expired bucket
+                expire(currentCounts);
+                currentCounts.bucket = bucket;
+            }
+            HashtagScanner.scan(tweetText, sink);
+            return true;
+        }
+
+        // Method to move the newest bucket forward to the bucket of time, expiring what falls out
+        void advanceTime(long time) {
+            advanceTo(Math.floorDiv(time, bucketSize));
+        }
+
+        // Method to get the k best hashtags of the last buckets buckets, best first, ties by hashtag name.
+        // A window size asked for the first time is tracked from then on.
+        List<Map.Entry<String, Long>> topK(int buckets, int k) {
+            track(buckets);
+            List<Map.Entry<String, Long>> result = new ArrayList<>();
+            for (Window window : windows) {
+                if (window.buckets != buckets) continue;
+                for (int id : window.ranking) {
+                    if (result.size() == k) break;
+                    result.add(new AbstractMap.SimpleEntry<>(table.name(id), window.counts[id]));
+                }
+            }
+            return result;
+        }
+
+        // Method to get the number of hashtags in the kept buckets
+        int hashtags() {
+            return table.size();
+        }
+
+        // Helper method to add one hashtag of the tweet being scanned to its bucket and windows
+        private void add(int id) {
+            if (currentCounts.add(id, 1)) { // First time in this bucket
+                if (id >= refs.length) refs = Arrays.copyOf(refs, Math.max(id + 1, refs.length * 2));
+                refs[id]++;
+            }
+            for (Window window : windows) {
+                if (window.contains(currentBucket)) window.update(id, 1);
+            }
+        }
+
+        // Helper method to make bucket the newest one, one step at a time so each window loses one bucket per step
+        private void advanceTo(long bucket) {
+            if (bucket <= head) return;
+            if (head == Long.MIN_VALUE || bucket - head >= ring.length) { // Everything kept has expired
+                for (Window window : windows) window.clear();
+                for (BucketCounts counts : ring) expire(counts);
+                head = bucket;
+                return;
+            }
+            while (head < bucket) {
+                head++;
+                for (Window window : windows) { // Bucket head - buckets leaves the window
+                    BucketCounts old = ring[(int) Math.floorMod(head - window.buckets, (long) ring.length)];
+                    if (old.bucket != head - window.buckets) continue;
+                    for (int i = 0; i < old.size; i++) {
+                        window.update(old.ids[i], -old.counts[i]);
+                    }
+                }
+                expire(ring[(int) Math.floorMod(head, (long) ring.length)]); // Bucket head - R expires
+            }
+        }
+
+        // Helper method to empty a ring entry, removing the hashtags no other kept bucket contains
+        private void expire(BucketCounts bucket) {
+            for (int i = 0; i < bucket.size; i++) {
+                int id = bucket.ids[i];
+                if (--refs[id] == 0) table.remove(id); // Windows only cover kept buckets, so their count is 0 too
+            }
+            bucket.clear();
+        }
+
+        // Helper method to check that a window fits in the retention
+        private void checkWindow(int buckets) {
+            if (buckets < 1 || buckets > ring.length) throw new IllegalArgumentException("window must be 1.." + ring.length + " buckets");
+        }
+
+        // Counts of one bucket, only for the hashtags seen in it
+        private static class BucketCounts {
+            long bucket = Long.MIN_VALUE; // Bucket number held, MIN_VALUE when empty
+            int[] ids = new int[8];
+            long[] counts = new long[8];
+            int size;
+            int[] slots = new int[16];    // Position + 1 per slot, 0 when empty; length is a power of two
+
+            // Method to add delta to the count of a hashtag id, returns true if the id is new to the bucket
+            boolean add(int id, long delta) {
+                int mask = slots.length - 1;
+                for (int slot = TagTable.mix(id) & mask; ; slot = (slot + 1) & mask) { // Linear probing
+                    int i = slots[slot] - 1;
+                    if (i < 0) {
+                        if (size == ids.length) {
+                            ids = Arrays.copyOf(ids, size * 2);
+                            counts = Arrays.copyOf(counts, size * 2);
+                        }
+                        ids[size] = id;
+                        counts[size] = delta;
+                        slots[slot] = ++size;
+                        if (size * 2 > slots.length) rehash();
+                        return true;
+                    }
+                    if (ids[i] == id) {
+                        counts[i] += delta;
+                        return false;
+                    }
+                }
+            }
+
+            // Method to empty the bucket, keeping its arrays
+            void clear() {
+                if (size > 0) Arrays.fill(slots, 0);
+                size = 0;
+                bucket = Long.MIN_VALUE;
+            }
+
+            // Helper method to double the slot array and reinsert every position
+            private void rehash() {
+                slots = new int[slots.length * 2];
+                int mask = slots.length - 1;
+                for (int i = 0; i < size; i++) {
+                    int slot = TagTable.mix(ids[i]) & mask;
+                    while (slots[slot] != 0) slot = (slot + 1) & mask;
+                    slots[slot] = i + 1;
+                }
+            }
+        }
+
+        // Counts and ranking of the hashtags over the last buckets buckets
+        private class Window {
+            final int buckets;
+            long[] counts = new long[16]; // Count of each hashtag id in the window
+            final TreeSet<Integer> ranking = new TreeSet<>((a, b) -> {
+                if (counts[a] != counts[b]) return Long.compare(counts[b], counts[a]);
+                return table.name(a).compareTo(table.name(b));
+            });
+
+            Window(int buckets) {
+                this.buckets = buckets;
+            }
+
+            // Method to check if a bucket is inside the window
+            boolean contains(long bucket) {
+                return bucket != Long.MIN_VALUE && bucket <= head && bucket > head - buckets;
+            }
+
+            // Method to change the count of an id, re-ranking it
+            void update(int id, long delta) {
+                grow(id);
+                if (counts[id] > 0) ranking.remove(id); // Remove before the count changes its place
+                counts[id] += delta;
+                if (counts[id] > 0) ranking.add(id);
+            }
+
+            // Method to make room for an id
+            void grow(int id) {
+                if (id >= counts.length) counts = Arrays.copyOf(counts, Math.max(id + 1, counts.length * 2));
+            }
+
+            // Method to forget every count; only ranked ids have a count
+            void clear() {
+                for (int id : ranking) {
+                    counts[id] = 0;
+                }
+                ranking.clear();
+            }
+        }
     }
 
     // Helper method to create a tweet map
@@ -115,4 +983,18 @@ public class Q4_aAns {
 // | #HappyDay   | 3       |
 // | #TechLife   | 2       |
 // | #FeelGood   | 1       |
+// +-------------+---------+
+// +-------------+---------+---------+
+// |   HASHTAG   |  ~COUNT |  ERROR  |
+// +-------------+---------+---------+
+// | #HappyDay   | 3       | 0       |
+// | #TechLife   | 2       | 0       |
+// | #FeelGood   | 1       | 0       |
+// +-------------+---------+---------+
+// +-------------+---------+
+// | LAST 3 DAYS |  COUNT  |
+// +-------------+---------+
+// | #FutureTech | 1       |
+// | #Nature     | 1       |
+// | #Peaceful   | 1       |
 // +-------------+---------+
\ No newline at end of file